@@ -0,0 +1,71 @@
+package de.dion.eventmanager.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Kleiner Benchmark Helfer ohne externe Abhängigkeiten.<br>
+ * <br>
+ * Läuft wie JMH in Warmup und Messung ab und gibt den Durchschnitt in ns/op<br>
+ * und die allokierten Bytes pro Operation aus (ähnlich <code>-prof gc</code>).<br>
+ * Für genaue Zahlen lieber JMH benutzen.
+ */
+public class Bench {
+
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURE_ROUNDS = 5;
+
+	/**
+	 * Eine Operation die gemessen werden soll.<br>
+	 * Der Rückgabewert wird gesammelt damit der JIT den Code nicht wegoptimiert.
+	 */
+	public interface Operation {
+		long run(int iterations) throws Exception;
+	}
+
+	public static volatile long blackhole;
+
+	/**
+	 * Misst die Operation und gibt das Ergebnis in der Konsole aus
+	 * 
+	 * @return Durchschnittliche Zeit pro Operation in Nanosekunden
+	 */
+	public static double measure(String name, int iterations, Operation op) {
+		try {
+			for (int i = 0; i < WARMUP_ROUNDS; i++) {
+				blackhole += op.run(iterations);
+			}
+
+			long best = Long.MAX_VALUE;
+			long total = 0;
+			long allocated = 0;
+			for (int i = 0; i < MEASURE_ROUNDS; i++) {
+				long bytes = allocatedBytes();
+				long start = System.nanoTime();
+				blackhole += op.run(iterations);
+				long time = System.nanoTime() - start;
+				allocated += allocatedBytes() - bytes;
+				best = Math.min(best, time);
+				total += time;
+			}
+
+			double avg = (double) total / MEASURE_ROUNDS / iterations;
+			double bytesPerOp = (double) allocated / MEASURE_ROUNDS / iterations;
+			System.out.printf("%-50s %12.2f ns/op (best %.2f) %10.1f B/op%n", name, avg, (double) best / iterations,
+					bytesPerOp);
+			return avg;
+		} catch (Exception ex) {
+			throw new IllegalStateException("Benchmark " + name + " fehlgeschlagen", ex);
+		}
+	}
+
+	/**
+	 * Bytes die der aktuelle Thread bisher allokiert hat, -1 wenn die JVM das nicht unterstützt
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
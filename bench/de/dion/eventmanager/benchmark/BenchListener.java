@@ -0,0 +1,16 @@
+package de.dion.eventmanager.benchmark;
+
+import de.dion.eventmanager.EventHandler;
+import de.dion.eventmanager.events.PlayerChatEvent;
+
+/**
+ * Vorlage für die Listener Klassen im {@link EventManagerBenchmark}.<br>
+ * Muss eine Top Level Klasse sein, damit sie als Hidden Class kopiert werden kann.
+ */
+public class BenchListener {
+
+	@EventHandler
+	public static void onChat(PlayerChatEvent e) {
+		e.setMessage(e.getMessage());
+	}
+}
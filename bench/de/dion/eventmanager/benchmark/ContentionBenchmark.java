@@ -0,0 +1,93 @@
+package de.dion.eventmanager.benchmark;
+
+import java.util.concurrent.CyclicBarrier;
+
+import de.dion.eventmanager.EventHandler;
+import de.dion.eventmanager.EventManager;
+import de.dion.eventmanager.events.Event;
+import de.dion.eventmanager.events.PlayerChatEvent;
+import de.dion.eventmanager.metrics.ListenerMetrics;
+
+/**
+ * Misst wie gut der Dispatch mit vielen Threads skaliert, die gleichzeitig Events callen.<br>
+ * <br>
+ * Jeder Thread callt sein eigenes Event, alle teilen sich den EventManager mit 10 Listenern,<br>
+ * von denen einer jedes Mal das volatile Canceled setzt. Angegeben ist die Zeit<br>
+ * pro Aufruf über alle Threads, bei perfekter Skalierung sinkt sie also mit der Anzahl der Kerne.<br>
+ * Die B/op zählen nur den messenden Thread und sind hier deshalb nicht aussagekräftig.<br>
+ * <br>
+ * Starten mit:<br>
+ * <code>java de.dion.eventmanager.benchmark.ContentionBenchmark [threads]</code><br>
+ * Standard sind so viele Threads wie Kerne, mindestens 8.
+ */
+public class ContentionBenchmark {
+
+	private static final int ITERATIONS = 800_000;
+
+	public static class CancelListener {
+
+		@EventHandler
+		public void onChat(PlayerChatEvent e) {
+			e.setCanceled(e.getMessage().isEmpty());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0])
+				: Math.max(8, Runtime.getRuntime().availableProcessors());
+		System.out.println(threads + " threads, " + Runtime.getRuntime().availableProcessors() + " cores");
+
+		contention("shared dispatch", threads, false, false);
+		contention("thread-confined dispatch", threads, true, false);
+		contention("thread-confined dispatch + ListenerMetrics", threads, true, true);
+	}
+
+	private static void contention(String name, int threads, boolean threadConfined, boolean metrics) {
+		EventManager<Object> em = new EventManager<Object>() {
+
+			@Override
+			public boolean shouldCallEvent(Object listener, Event event) {
+				return true;
+			}
+		};
+		for (Class<?> cl : EventManagerBenchmark.listenerClasses(9)) {
+			em.registerEvents(cl);
+		}
+		em.registerEvents(new CancelListener());
+		em.setThreadConfinedDispatch(threadConfined);
+		if (metrics) {
+			em.setMetricsRecorder(new ListenerMetrics());
+		}
+
+		Bench.measure(name + ", " + threads + " threads", ITERATIONS, iterations -> {
+			int perThread = iterations / threads;
+			CyclicBarrier start = new CyclicBarrier(threads);
+			long[] results = new long[threads];
+			Thread[] workers = new Thread[threads];
+
+			for (int t = 0; t < threads; t++) {
+				int index = t;
+				workers[t] = new Thread(() -> {
+					PlayerChatEvent event = new PlayerChatEvent("Thread" + index, "Hallo");
+					try {
+						start.await();
+					} catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+					for (int i = 0; i < perThread; i++) {
+						em.call(event);
+					}
+					results[index] = event.isCanceled() ? 0 : perThread;
+				});
+				workers[t].start();
+			}
+
+			long total = 0;
+			for (int t = 0; t < threads; t++) {
+				workers[t].join();
+				total += results[t];
+			}
+			return total;
+		});
+	}
+}
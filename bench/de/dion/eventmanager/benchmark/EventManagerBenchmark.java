@@ -0,0 +1,255 @@
+package de.dion.eventmanager.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import de.dion.eventmanager.CallAlways;
+import de.dion.eventmanager.EventHandler;
+import de.dion.eventmanager.EventManager;
+import de.dion.eventmanager.EventPool;
+import de.dion.eventmanager.events.Event;
+import de.dion.eventmanager.events.PlayerChatEvent;
+
+/**
+ * Benchmarks für die wichtigsten Pfade des EventManagers.<br>
+ * <br>
+ * Starten mit:<br>
+ * <code>java de.dion.eventmanager.benchmark.EventManagerBenchmark</code><br>
+ * Die Ergebnisse zum Vergleichen stehen in <code>BENCHMARKS.md</code>.
+ */
+public class EventManagerBenchmark {
+
+	private static final int ITERATIONS = 200_000;
+	private static final int LISTENER_CLASSES = 2_000;
+
+	public static class AlwaysListener {
+
+		@CallAlways
+		@EventHandler
+		public void onChat(PlayerChatEvent e) {
+			e.setMessage(e.getMessage());
+		}
+	}
+
+	public static class Level1Event extends Event {
+	}
+
+	public static class Level2Event extends Level1Event {
+	}
+
+	public static class Level3Event extends Level2Event {
+	}
+
+	public static class Level4Event extends Level3Event {
+	}
+
+	public static class HierarchyListener {
+
+		@EventHandler
+		public void onEvent(Event e) {
+		}
+
+		@EventHandler
+		public void onLevel1(Level1Event e) {
+		}
+
+		@EventHandler
+		public void onLevel2(Level2Event e) {
+		}
+
+		@EventHandler
+		public void onLevel4(Level4Event e) {
+		}
+	}
+
+	public static class AsyncEvent extends Event {
+
+		private final CountDownLatch latch;
+
+		public AsyncEvent(CountDownLatch latch) {
+			this.latch = latch;
+			setAsynchronous(true);
+		}
+	}
+
+	public static class AsyncListener {
+
+		@EventHandler
+		public void onAsync(AsyncEvent e) {
+			e.latch.countDown();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		syncDispatch(1);
+		syncDispatch(10);
+		syncDispatch(100);
+		superListeners();
+		shouldCallFilter();
+		callAlwaysMix();
+		pooledChat();
+		asyncThroughput();
+		registration();
+	}
+
+	private static void syncDispatch(int listeners) {
+		EventManager<Object> em = manager(true);
+		for (Class<?> cl : listenerClasses(listeners)) {
+			em.registerEvents(cl);
+		}
+		PlayerChatEvent event = new PlayerChatEvent("Peter", "Hallo");
+		Bench.measure("sync dispatch, " + listeners + " listener", ITERATIONS, iterations -> {
+			for (int i = 0; i < iterations; i++) {
+				em.call(event);
+			}
+			return event.getMessage().length();
+		});
+	}
+
+	private static void superListeners() {
+		EventManager<Object> em = manager(true);
+		em.registerEvents(new HierarchyListener());
+		em.setAllowSuperListeners(true);
+		Level4Event event = new Level4Event();
+		Bench.measure("super listeners, 5 level hierarchy", ITERATIONS, iterations -> {
+			for (int i = 0; i < iterations; i++) {
+				em.call(event);
+			}
+			return 0;
+		});
+	}
+
+	private static void shouldCallFilter() {
+		EventManager<Object> em = new EventManager<Object>() {
+
+			@Override
+			public boolean shouldCallEvent(Object listener, Event event) {
+				return (System.identityHashCode(listener) & 1) == 0;
+			}
+		};
+		for (Class<?> cl : listenerClasses(10)) {
+			em.registerEvents(cl);
+		}
+		PlayerChatEvent event = new PlayerChatEvent("Peter", "Hallo");
+		Bench.measure("shouldCallEvent filter, 10 listener", ITERATIONS, iterations -> {
+			for (int i = 0; i < iterations; i++) {
+				em.call(event);
+			}
+			return 0;
+		});
+	}
+
+	private static void callAlwaysMix() {
+		EventManager<Object> em = manager(false);
+		for (Class<?> cl : listenerClasses(5)) {
+			em.registerEvents(cl);
+		}
+		em.registerEvents(new AlwaysListener());
+		PlayerChatEvent event = new PlayerChatEvent("Peter", "Hallo");
+		Bench.measure("@CallAlways mix, 5 disabled + 1 always", ITERATIONS, iterations -> {
+			for (int i = 0; i < iterations; i++) {
+				em.call(event);
+			}
+			return 0;
+		});
+	}
+
+	/**
+	 * Vergleicht ein neues PlayerChatEvent pro Aufruf mit einem aus dem {@link EventPool}
+	 */
+	private static void pooledChat() {
+		EventManager<Object> em = manager(true);
+		for (Class<?> cl : listenerClasses(10)) {
+			em.registerEvents(cl);
+		}
+		String[] senders = { "Peter", "Kevin", "Karlotto" };
+		Bench.measure("chat, new event per call", ITERATIONS, iterations -> {
+			long length = 0;
+			for (int i = 0; i < iterations; i++) {
+				PlayerChatEvent event = new PlayerChatEvent(senders[i % 3], "Hallo");
+				em.call(event);
+				length += event.getMessage().length();
+			}
+			return length;
+		});
+
+		EventPool<PlayerChatEvent> pool = new EventPool<>(PlayerChatEvent::new);
+		Bench.measure("chat, pooled event", ITERATIONS, iterations -> {
+			long length = 0;
+			for (int i = 0; i < iterations; i++) {
+				PlayerChatEvent event = pool.acquire().init(senders[i % 3], "Hallo");
+				try {
+					em.call(event);
+					length += event.getMessage().length();
+				} finally {
+					pool.release(event);
+				}
+			}
+			return length;
+		});
+	}
+
+	private static void asyncThroughput() {
+		EventManager<Object> em = manager(true);
+		em.registerEvents(new AsyncListener());
+		Bench.measure("async call throughput", ITERATIONS, iterations -> {
+			CountDownLatch latch = new CountDownLatch(iterations);
+			for (int i = 0; i < iterations; i++) {
+				em.call(new AsyncEvent(latch));
+			}
+			latch.await();
+			return latch.getCount();
+		});
+	}
+
+	private static void registration() {
+		List<Class<?>> classes = listenerClasses(LISTENER_CLASSES);
+		Bench.measure("registerEvents, " + LISTENER_CLASSES + " listener classes", 1, iterations -> {
+			EventManager<Object> em = manager(true);
+			em.registerEvents(new ArrayList<Object>(classes));
+			return em.getAsyncDispatcher().getPendingEvents();
+		});
+	}
+
+	private static EventManager<Object> manager(boolean enabled) {
+		return new EventManager<Object>() {
+
+			@Override
+			public boolean shouldCallEvent(Object listener, Event event) {
+				return enabled;
+			}
+		};
+	}
+
+	private static final AtomicReference<byte[]> LISTENER_BYTES = new AtomicReference<>();
+
+	/**
+	 * Erzeugt unterschiedliche Listener Klassen als Hidden Classes aus {@link BenchListener},<br>
+	 * damit gleich viele Klassen wie in einem großen Plugin System registriert werden können.
+	 */
+	static List<Class<?>> listenerClasses(int count) {
+		try {
+			byte[] bytes = LISTENER_BYTES.get();
+			if (bytes == null) {
+				try (InputStream in = BenchListener.class.getResourceAsStream("BenchListener.class")) {
+					bytes = in.readAllBytes();
+				}
+				LISTENER_BYTES.set(bytes);
+			}
+
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			List<Class<?>> classes = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				classes.add(lookup.defineHiddenClass(bytes, true).lookupClass());
+			}
+			return classes;
+		} catch (IOException | IllegalAccessException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package de.dion.eventmanager.benchmark;
+
+import java.lang.reflect.Method;
+
+import de.dion.eventmanager.ClassScanner;
+import de.dion.eventmanager.EventHandler;
+import de.dion.eventmanager.EventInvoker;
+import de.dion.eventmanager.EventManager;
+import de.dion.eventmanager.events.Event;
+import de.dion.eventmanager.events.PlayerChatEvent;
+
+/**
+ * Vergleicht das frühere reflektive {@code Method.invoke} mit dem<br>
+ * generierten {@link EventInvoker} der es ersetzt, beide ohne den restlichen Dispatch.<br>
+ * Der volle Weg über {@link EventManager#call(Event)} wird nur als Referenz gemessen.
+ */
+public class InvokerBenchmark {
+
+	private static final int ITERATIONS = 2_000_000;
+	/** Verschiedene Events, damit der JIT die Schleife nicht zu einer Multiplikation zusammenfasst */
+	private static final int EVENTS = 1024;
+
+	public static class CountingListener {
+
+		public long count;
+
+		@EventHandler
+		public void onChat(PlayerChatEvent e) {
+			count += e.getMessage().length();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		CountingListener listener = new CountingListener();
+		PlayerChatEvent[] events = new PlayerChatEvent[EVENTS];
+		for (int i = 0; i < EVENTS; i++) {
+			events[i] = new PlayerChatEvent("Peter", "Hallo " + i);
+		}
+
+		Method method = CountingListener.class.getMethod("onChat", PlayerChatEvent.class);
+		Bench.measure("reflective Method.invoke", ITERATIONS, iterations -> {
+			try {
+				for (int i = 0; i < iterations; i++) {
+					method.invoke(listener, events[i & (EVENTS - 1)]);
+				}
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+			return listener.count;
+		});
+
+		EventInvoker invoker = new ClassScanner<Object>().scan(listener).get(0).getInvoker();
+		Bench.measure("generated EventInvoker.invoke", ITERATIONS, iterations -> {
+			try {
+				for (int i = 0; i < iterations; i++) {
+					invoker.invoke(events[i & (EVENTS - 1)]);
+				}
+			} catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+			return listener.count;
+		});
+
+		EventManager<Object> em = new EventManager<Object>() {
+
+			@Override
+			public boolean shouldCallEvent(Object listener, Event event) {
+				return true;
+			}
+		};
+		em.registerEvents(listener);
+		Bench.measure("EventManager.call (reference, full path)", ITERATIONS, iterations -> {
+			for (int i = 0; i < iterations; i++) {
+				em.call(events[i & (EVENTS - 1)]);
+			}
+			return listener.count;
+		});
+	}
+}
@@ -0,0 +1,258 @@
+package de.dion.eventmanager;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Führt asynchrone Events auf einem {@link Executor} aus, statt für jedes Event<br>
+ * einen neuen Thread zu starten.<br>
+ * <br>
+ * Standard ist ab Java 21 ein Virtual Thread pro Event, davor ein begrenzter Pool<br>
+ * mit so vielen Threads wie Prozessorkerne. Pro Eventklasse kann ein eigener<br>
+ * Executor gesetzt werden.<br>
+ * <br>
+ * Lehnt ein Executor ein Event ab, wird es gezählt und direkt im aufrufenden Thread ausgeführt.<br>
+ * <br>
+ * Mit {@link #setQueue} bekommt eine Eventklasse eine eigene begrenzte {@link EventQueue}<br>
+ * vor dem Executor, mit {@link #setDefaultQueue} jede Eventklasse ohne eigene Einstellung.<br>
+ * Fehler aus Tasks bekommt der <code>onError</code> Handler, mit und ohne Queue.<br>
+ * Nur ein abgelehnter Task, der im aufrufenden Thread läuft, wirft seine Fehler direkt an den Aufrufer.
+ */
+public class AsyncDispatcher {
+
+	private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+	private final Map<Class<? extends Event>, Executor> routes = new ConcurrentHashMap<>();
+	private final Map<Class<? extends Event>, EventQueue> queues = new ConcurrentHashMap<>();
+	private volatile Executor executor;
+	private volatile QueueSettings defaultQueue;
+	private final BiConsumer<Event, Throwable> onError;
+
+	private final AtomicInteger pending = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+
+	public AsyncDispatcher() {
+		this(null);
+	}
+
+	public AsyncDispatcher(Executor executor) {
+		this(executor, (event, error) -> {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+		});
+	}
+
+	/**
+	 * @param executor Darf <code>null</code> sein, dann wird der Standard Executor erzeugt
+	 * @param onError Bekommt Fehler aus Tasks, auf dem Thread des Executors
+	 */
+	public AsyncDispatcher(Executor executor, BiConsumer<Event, Throwable> onError) {
+		this.executor = executor;
+		this.onError = onError;
+	}
+
+	/**
+	 * Führt den Task für das Event auf dem passenden Executor aus
+	 */
+	public void dispatch(Event event, Runnable task) {
+		dispatch(event, task, null);
+	}
+
+	/**
+	 * @param onDropped Wird aufgerufen, wenn eine {@link EventQueue} das Event verwirft, darf <code>null</code> sein
+	 */
+	public void dispatch(Event event, Runnable task, Consumer<RejectedExecutionException> onDropped) {
+		EventQueue queue = getQueue(event.getClass());
+		if (queue != null) {
+			queue.offer(event, task, onDropped, onError, this::getExecutor);
+			return;
+		}
+
+		Executor target = getExecutor(event.getClass());
+		pending.incrementAndGet();
+		try {
+			target.execute(() -> {
+				pending.decrementAndGet();
+				try {
+					task.run();
+				} catch (Throwable ex) {
+					onError.accept(event, ex);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			pending.decrementAndGet();
+			rejected.increment();
+			task.run();
+		}
+	}
+
+	/**
+	 * Gibt den Executor für die Eventklasse zurück, ohne eigene Route den Standard Executor
+	 */
+	public Executor getExecutor(Class<? extends Event> eventClass) {
+		Executor routed = routes.get(eventClass);
+		return routed != null ? routed : getExecutor();
+	}
+
+	public Executor getExecutor() {
+		Executor current = executor;
+		if (current == null) {
+			synchronized (this) {
+				if (executor == null) {
+					executor = createDefaultExecutor();
+				}
+				current = executor;
+			}
+		}
+		return current;
+	}
+
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Setzt einen eigenen Executor für genau diese Eventklasse.<br>
+	 * Mit <code>null</code> wird die Route wieder entfernt.
+	 */
+	public void setExecutor(Class<? extends Event> eventClass, Executor executor) {
+		if (executor == null) {
+			routes.remove(eventClass);
+		} else {
+			routes.put(eventClass, executor);
+		}
+	}
+
+	/**
+	 * Gibt der Eventklasse eine eigene begrenzte Queue
+	 * 
+	 * @param onReject Bekommt bei {@link OverflowPolicy#Reject} die abgelehnten Events, darf <code>null</code> sein
+	 */
+	public void setQueue(Class<? extends Event> eventClass, int capacity, OverflowPolicy policy, Consumer<Event> onReject) {
+		queues.put(eventClass, new EventQueue(capacity, policy, onReject));
+	}
+
+	/**
+	 * Entfernt die Queue der Eventklasse, wartende Events werden noch abgearbeitet
+	 */
+	public void removeQueue(Class<? extends Event> eventClass) {
+		queues.remove(eventClass);
+	}
+
+	/**
+	 * Jede Eventklasse ohne eigene Queue bekommt beim ersten Event eine Queue mit diesen Einstellungen.<br>
+	 * Mit <code>policy == null</code> laufen diese Klassen wieder direkt auf dem Executor.
+	 */
+	public void setDefaultQueue(int capacity, OverflowPolicy policy, Consumer<Event> onReject) {
+		if (policy == null) {
+			defaultQueue = null;
+			queues.values().removeIf(EventQueue::isDefault);
+		} else {
+			if (capacity < 1) {
+				throw new IllegalArgumentException("Die Queue braucht mindestens einen Platz");
+			}
+			defaultQueue = new QueueSettings(capacity, policy, onReject);
+		}
+	}
+
+	/**
+	 * Gibt die Queue der Eventklasse zurück oder <code>null</code> wenn sie direkt auf dem Executor läuft
+	 */
+	public EventQueue getQueue(Class<? extends Event> eventClass) {
+		EventQueue queue = queues.get(eventClass);
+		if (queue == null) {
+			QueueSettings settings = defaultQueue;
+			if (settings != null) {
+				queue = queues.computeIfAbsent(eventClass, cl -> settings.create());
+			}
+		}
+		return queue;
+	}
+
+	/**
+	 * Alle Queues mit ihrer Eventklasse, z.B. um Tiefe und verworfene Events auszugeben
+	 */
+	public Map<Class<? extends Event>, EventQueue> getQueues() {
+		return Collections.unmodifiableMap(queues);
+	}
+
+	/**
+	 * Anzahl der Events die an einen Executor übergeben wurden, aber noch nicht gestartet sind.<br>
+	 * Events die noch in einer {@link EventQueue} warten zählen nicht dazu.
+	 */
+	public int getPendingEvents() {
+		return pending.get();
+	}
+
+	/**
+	 * Anzahl der Events die ein Executor abgelehnt hat.<br>
+	 * Diese wurden im aufrufenden Thread ausgeführt.
+	 */
+	public long getRejectedEvents() {
+		return rejected.sum();
+	}
+
+	private Executor createDefaultExecutor() {
+		try {
+			// Java 21+, per Lookup damit die Library weiterhin mit älteren Versionen baut
+			return (ExecutorService) MethodHandles.publicLookup()
+					.findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+					.invoke();
+		} catch (Throwable ex) {
+			int threads = Runtime.getRuntime().availableProcessors();
+			return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(DEFAULT_QUEUE_CAPACITY), new DaemonThreadFactory(),
+					(task, pool) -> {
+						throw new RejectedExecutionException("Async Event Queue ist voll");
+					});
+		}
+	}
+
+	private static final class QueueSettings {
+
+		final int capacity;
+		final OverflowPolicy policy;
+		final Consumer<Event> onReject;
+
+		QueueSettings(int capacity, OverflowPolicy policy, Consumer<Event> onReject) {
+			this.capacity = capacity;
+			this.policy = policy;
+			this.onReject = onReject;
+		}
+
+		EventQueue create() {
+			EventQueue queue = new EventQueue(capacity, policy, onReject);
+			queue.setDefault(true);
+			return queue;
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "EventManager-Async-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package de.dion.eventmanager;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Die Event Methode bekommt statt einem einzelnen Event eine Liste von Events<br>
+ * <br>
+ * Bei {@link EventManager#callAll(java.util.Collection)} wird die Methode nur einmal<br>
+ * pro Eventklasse mit allen Events aufgerufen, die nicht unterbrochen wurden.<br>
+ * Bei einem normalen {@link EventManager#call} enthält die Liste nur das eine Event.<br>
+ * <br>
+ * Beispiel:
+ * <pre>
+ * {@literal @}Batch
+ * {@literal @}EventHandler(Priority.Low)
+ * public void onChats(List&lt;PlayerChatEvent&gt; events) {}
+ * </pre>
+ * 
+ * @see EventManager#callAll(java.util.Collection)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Batch {
+
+}
@@ -0,0 +1,15 @@
+package de.dion.eventmanager;
+
+import java.util.List;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Wie {@link EventInvoker}, nur für Methoden mit der {@link Batch} Annotation
+ */
+@FunctionalInterface
+public interface BatchInvoker {
+
+	void invoke(List<? extends Event> events) throws Throwable;
+
+}
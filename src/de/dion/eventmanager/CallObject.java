@@ -2,13 +2,37 @@ package de.dion.eventmanager;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.dion.eventmanager.events.Event;
 
 public class CallObject<T> {
 
+	private static final String[] NONE = new String[0];
+
 	private Method method;
+	private String name;
+	private Class<?> declaringClass;
+	private boolean staticMethod;
+	private EventInvoker invoker;
+	private BatchInvoker batchInvoker;
 	private T type;
+	private Class<?> eventClass;
 	private Priority priority;
 	private boolean callAlways;
+	private long timeBudget;
+	private boolean ignoreCanceled;
+	private EventFilter<Event>[] filters;
+	private String id;
+	private String[] before = NONE;
+	private String[] after = NONE;
+	private boolean concurrent;
+	private boolean readOnly;
+	private boolean internal;
+	private volatile boolean quarantined;
+	private Object recorderData;
+	private final AtomicInteger budgetViolations = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger();
 
 	public CallObject(Method method, T type, Priority priority) {
 		this.method = method;
@@ -23,8 +47,69 @@ public class CallObject<T> {
 		return method;
 	}
 
+	/**
+	 * Setzt auch Name, Klasse und static der Methode
+	 */
 	public void setMethod(Method method) {
 		this.method = method;
+		this.name = method.getName();
+		this.declaringClass = method.getDeclaringClass();
+		this.staticMethod = Modifier.isStatic(method.getModifiers());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Class<?> getDeclaringClass() {
+		return declaringClass;
+	}
+
+	public void setDeclaringClass(Class<?> declaringClass) {
+		this.declaringClass = declaringClass;
+	}
+
+	public boolean isStatic() {
+		return staticMethod;
+	}
+
+	public void setStatic(boolean staticMethod) {
+		this.staticMethod = staticMethod;
+	}
+
+	/**
+	 * Vergleicht Klasse, Name und Art der Methode.<br>
+	 * Funktioniert auch ohne {@link Method}, wenn das CallObject aus einem {@link ListenerIndex} kommt.
+	 */
+	public boolean isSameMethod(CallObject<?> other) {
+		return declaringClass == other.declaringClass && isBatch() == other.isBatch() && name.equals(other.name);
+	}
+
+	public EventInvoker getInvoker() {
+		return invoker;
+	}
+
+	public void setInvoker(EventInvoker invoker) {
+		this.invoker = invoker;
+	}
+
+	public BatchInvoker getBatchInvoker() {
+		return batchInvoker;
+	}
+
+	public void setBatchInvoker(BatchInvoker batchInvoker) {
+		this.batchInvoker = batchInvoker;
+	}
+
+	/**
+	 * TRUE wenn die Methode die {@link Batch} Annotation hat
+	 */
+	public boolean isBatch() {
+		return batchInvoker != null;
 	}
 
 	public T getType() {
@@ -35,6 +120,17 @@ public class CallObject<T> {
 		this.type = type;
 	}
 
+	/**
+	 * Die Eventklasse unter der das CallObject im eventTree steht
+	 */
+	public Class<?> getEventClass() {
+		return eventClass;
+	}
+
+	public void setEventClass(Class<?> eventClass) {
+		this.eventClass = eventClass;
+	}
+
 	public Priority getPriority() {
 		return priority;
 	}
@@ -51,6 +147,193 @@ public class CallObject<T> {
 		this.callAlways = callAlways;
 	}
 
+	public boolean isIgnoreCanceled() {
+		return ignoreCanceled;
+	}
+
+	public void setIgnoreCanceled(boolean ignoreCanceled) {
+		this.ignoreCanceled = ignoreCanceled;
+	}
+
+	/**
+	 * Die Instanzen der {@link EventHandler#filter()} Klassen oder <code>null</code>
+	 */
+	public EventFilter<Event>[] getFilters() {
+		return filters;
+	}
+
+	public void setFilters(EventFilter<Event>[] filters) {
+		this.filters = filters != null && filters.length == 0 ? null : filters;
+	}
+
+	/**
+	 * Die {@link EventHandler#id()} oder <code>null</code>
+	 */
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id != null && id.isEmpty() ? null : id;
+	}
+
+	public String[] getBefore() {
+		return before;
+	}
+
+	public void setBefore(String[] before) {
+		this.before = before != null ? before : NONE;
+	}
+
+	public String[] getAfter() {
+		return after;
+	}
+
+	public void setAfter(String[] after) {
+		this.after = after != null ? after : NONE;
+	}
+
+	/**
+	 * TRUE wenn die Methode mit {@link EventHandler#before()} oder {@link EventHandler#after()} eingeordnet wird
+	 */
+	public boolean hasOrdering() {
+		return before.length > 0 || after.length > 0;
+	}
+
+	/**
+	 * Prüft ob ein Name aus {@link EventHandler#before()} oder {@link EventHandler#after()} diese Methode meint
+	 * 
+	 * @see EventHandler#id()
+	 */
+	public boolean matches(String name) {
+		if (name.equals(id)) {
+			return true;
+		}
+		Class<?> listenerClass = type instanceof Class ? (Class<?>) type : type.getClass();
+		String simpleName = listenerClass.getSimpleName();
+		return name.equals(listenerClass.getName()) || name.equals(simpleName)
+				|| (id == null && name.equals(simpleName + "#" + this.name));
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * TRUE wenn die Methode die {@link ReadOnly} Annotation hat
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	public void setReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * TRUE wenn das CallObject vom EventManager selbst stammt, z.B. von einem {@link EventPublisher}.<br>
+	 * {@link #getType()} ist dann kein T sondern das interne Object, solche CallObjects sind immer {@link CallAlways}<br>
+	 * und werden nicht über die öffentlichen Listen des EventManagers herausgegeben.
+	 */
+	public boolean isInternal() {
+		return internal;
+	}
+
+	void setInternal(boolean internal) {
+		this.internal = internal;
+	}
+
+	/**
+	 * Prüft {@link EventHandler#ignoreCanceled()} und die Filter der Methode
+	 * 
+	 * @return FALSE wenn die Methode für dieses Event übersprungen wird
+	 */
+	public boolean accepts(Event event) {
+		if (ignoreCanceled && event.isCanceled()) {
+			return false;
+		}
+		if (filters != null) {
+			for (EventFilter<Event> filter : filters) {
+				if (!filter.test(event)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Zeitbudget in Millisekunden, 0 für das Standardbudget
+	 * 
+	 * @see EventHandler#timeBudget()
+	 */
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	public void setTimeBudget(long timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * TRUE wenn der {@link ListenerWatchdog} die Methode wegen zu vieler Budget Überschreitungen<br>
+	 * oder der {@link CircuitBreakerExceptionHandler} wegen zu vieler Fehler in Quarantäne gesetzt hat. Sie wird dann nur noch mit {@link CallAlways} aufgerufen.
+	 */
+	public boolean isQuarantined() {
+		return quarantined;
+	}
+
+	public void setQuarantined(boolean quarantined) {
+		this.quarantined = quarantined;
+	}
+
+	public int getBudgetViolations() {
+		return budgetViolations.get();
+	}
+
+	int addBudgetViolation() {
+		return budgetViolations.incrementAndGet();
+	}
+
+	/**
+	 * Fehler seit der letzten Quarantäne
+	 * 
+	 * @see CircuitBreakerExceptionHandler
+	 */
+	public int getFailures() {
+		return failures.get();
+	}
+
+	int addFailure() {
+		return failures.incrementAndGet();
+	}
+
+	/**
+	 * Platz für die Daten eines {@link de.dion.eventmanager.metrics.MetricsRecorder MetricsRecorder},<br>
+	 * damit er sie beim Messen nicht in einer Map nachschlagen muss. Nicht synchronisiert,<br>
+	 * der Recorder muss selbst prüfen ob die gelesenen Daten zu ihm gehören.
+	 */
+	public Object getRecorderData() {
+		return recorderData;
+	}
+
+	public void setRecorderData(Object recorderData) {
+		this.recorderData = recorderData;
+	}
+
+	/**
+	 * Hebt die Quarantäne auf und setzt Überschreitungen und Fehler zurück
+	 */
+	public void release() {
+		budgetViolations.set(0);
+		failures.set(0);
+		quarantined = false;
+	}
+
 	/**
 	 * Example Output:<br>
 	 * <code>void onChat (High): ChatListener()</code> oder<br>
@@ -65,15 +348,24 @@ public class CallObject<T> {
 	public String toString() {
 		String out = "";
 		
+		if (quarantined) {
+			out += "[Quarantäne] ";
+		}
 		if (callAlways) {
 			out += "@CallAlways ";
 		}
-		if (Modifier.isStatic(method.getModifiers())) {
+		if (isBatch()) {
+			out += "@Batch ";
+		}
+		if (readOnly) {
+			out += "@ReadOnly ";
+		}
+		if (staticMethod) {
 			out += "static ";
 		}
 		
-		out += method.getGenericReturnType().getTypeName() + " ";
-		out += method.getName() + " ";
+		out += (method != null ? method.getGenericReturnType().getTypeName() : "void") + " ";
+		out += name + " ";
 		out += "(" + priority + "): ";
 		
 		if (type instanceof Class) {
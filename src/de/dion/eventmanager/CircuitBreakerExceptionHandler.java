@@ -0,0 +1,46 @@
+package de.dion.eventmanager;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Setzt Event Methoden nach zu vielen Fehlern in Quarantäne.<br>
+ * <br>
+ * Die Fehler werden im {@link CallObject} gezählt und beim Aufheben der Quarantäne zurückgesetzt.<br>
+ * Meldungen des {@link ListenerWatchdog} zählen nicht als Fehler, Überschreitungen zählt er selbst.
+ * 
+ * @see ListenerExceptionHandler#circuitBreaker(int, ListenerExceptionHandler)
+ */
+public class CircuitBreakerExceptionHandler implements ListenerExceptionHandler {
+
+	private final int failures;
+	private final ListenerExceptionHandler delegate;
+
+	/**
+	 * @param delegate Bekommt jeden Fehler und danach die {@link ListenerQuarantinedException}, darf <code>null</code> sein
+	 */
+	public CircuitBreakerExceptionHandler(int failures, ListenerExceptionHandler delegate) {
+		if (failures < 1) {
+			throw new IllegalArgumentException("Es muss mindestens ein Fehler erlaubt sein");
+		}
+		this.failures = failures;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void handle(CallObject<?> listener, Event event, Throwable error) {
+		ListenerQuarantinedException quarantined = null;
+		if (listener != null && !(error instanceof SlowListenerException) && !(error instanceof ListenerQuarantinedException)) {
+			int count = listener.addFailure();
+			if (count == failures && !listener.isQuarantined()) {
+				quarantined = new ListenerQuarantinedException(listener, count + " Fehlern", error);
+				listener.setQuarantined(true);
+			}
+		}
+		if (delegate != null) {
+			delegate.handle(listener, event, error);
+			if (quarantined != null) {
+				delegate.handle(listener, event, quarantined);
+			}
+		}
+	}
+}
@@ -1,72 +1,43 @@
 package de.dion.eventmanager;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 
 import de.dion.eventmanager.events.Event;
 
 /**
- * Der Classscanner durchsucht Klassen nach Events und tr�gt diese in den
- * eventTree ein
+ * Der Classscanner durchsucht Klassen nach Events und erzeugt daraus die
+ * CallObjects, die von der {@link EventRegistry} in den eventTree eingetragen werden
  */
 public class ClassScanner<T> {
 
-	private HashMap<Class<? extends Event>, ArrayList<CallObject<T>>> eventTree;
+	private final List<CallObject<T>> found = new ArrayList<>();
 
-	public ClassScanner(HashMap<Class<? extends Event>, ArrayList<CallObject<T>>> eventTree) {
-		this.eventTree = eventTree;
-	}
-	
 	/**
-	 * Sortiert alle Events im eventTree der Priorit�t nach<br>
-	 * von <b>HIGHEST</b> bis <b>LOWEST</b>
+	 * Durchsucht den Listener (Instanz oder Klasse) nach Event Methoden
 	 * 
-	 * @see EventHandler
+	 * @return Ein CallObject pro Event Methode
 	 */
-	public void sortEvents() {
-		for (Class<? extends Event> cl : eventTree.keySet()) {
-
-			ArrayList<CallObject<T>> oldMethods = eventTree.get(cl);
-			ArrayList<CallObject<T>> newMethods = new ArrayList<>();
-
-			newMethods.addAll(filterMethods(oldMethods, Priority.Highest));
-			newMethods.addAll(filterMethods(oldMethods, Priority.High));
-			newMethods.addAll(filterMethods(oldMethods, Priority.Normal));
-			newMethods.addAll(filterMethods(oldMethods, Priority.Low));
-			newMethods.addAll(filterMethods(oldMethods, Priority.Lowest));
-			eventTree.replace(cl, newMethods);
-		}
-	}
-
-	private ArrayList<CallObject<T>> filterMethods(ArrayList<CallObject<T>> methods, Priority priority) {
-		ArrayList<CallObject<T>> newMethods = new ArrayList<>();
-
-		for (CallObject<T> co : methods) {
-			if (co.getPriority() == priority) {
-				newMethods.add(co);
-			}
-		}
-		return newMethods;
+	public List<CallObject<T>> scan(T type) {
+		found.clear();
+		registerEvents(type, getClass(type));
+		return new ArrayList<>(found);
 	}
 
-	public void registerEvents(Collection<? extends T> instances) {
-		for (T type : instances) {
-			registerEvents(type, getClass(type));
-		}
-	}
-
-	@SuppressWarnings("unchecked")
-	public void registerEvents(T... instances) {
-		for (T type : instances) {
-			registerEvents(type, getClass(type));
+	private void registerEvents(T type, Class cl) {
+		ListenerIndex index = ListenerIndexes.get(cl);
+		if (index != null) {
+			registerIndexed(type, index);
+			return;
 		}
-	}
 
-	private void registerEvents(T type, Class cl) {
 		for (Method m : cl.getMethods()) {
 			for (Annotation anno : m.getAnnotations()) {
 				if (anno instanceof EventHandler) {
@@ -77,6 +48,41 @@ public class ClassScanner<T> {
 		}
 	}
 
+	/**
+	 * Registriert die Methoden aus einem zur Compilezeit generierten Index,<br>
+	 * ohne die Klasse per Reflection zu durchsuchen.
+	 */
+	private void registerIndexed(T type, ListenerIndex index) {
+		for (IndexedHandler handler : index.getHandlers()) {
+			if (type instanceof Class && !handler.isStatic()) {
+				staticError();
+				continue;
+			}
+
+			CallObject<T> co = new CallObject<>();
+			co.setName(handler.getName());
+			co.setDeclaringClass(handler.getDeclaringClass());
+			co.setStatic(handler.isStatic());
+			co.setType(type);
+			co.setPriority(handler.getPriority());
+			co.setCallAlways(handler.isCallAlways());
+			co.setTimeBudget(handler.getTimeBudget());
+			co.setIgnoreCanceled(handler.isIgnoreCanceled());
+			co.setFilters(createFilters(handler.getFilters()));
+			co.setId(handler.getId());
+			co.setBefore(handler.getBefore());
+			co.setAfter(handler.getAfter());
+			co.setConcurrent(handler.isConcurrent());
+			co.setReadOnly(handler.isReadOnly());
+			if (handler.isBatch()) {
+				co.setBatchInvoker(handler.createBatchInvoker(type));
+			} else {
+				co.setInvoker(handler.createInvoker(type));
+			}
+			saveCallObject(handler.getEventClass(), co);
+		}
+	}
+
 	private Class getClass(T type) {
 		if (type instanceof Class) {
 			return (Class) type;
@@ -84,47 +90,104 @@ public class ClassScanner<T> {
 		return type.getClass();
 	}
 
-	@SuppressWarnings("unchecked")
 	private void checkMethod(T type, Method m, EventHandler anno) {
 		if (m.getParameterCount() == 1) {
-			Class<?> paramType = m.getParameterTypes()[0];
-			if (isEventClass(paramType)) {
+			Class<?> eventClass = getEventClass(m);
+			if (eventClass != null) {
 
 				if (type instanceof Class) {
 					if (Modifier.isStatic(m.getModifiers())) {
-						saveMethod((Class<Event>) paramType, type, m, anno);
+						saveMethod(eventClass, type, m, anno);
 					} else {
 						staticError();
 					}
 				} else {
-					saveMethod((Class<Event>) paramType, type, m, anno);
+					saveMethod(eventClass, type, m, anno);
 				}
 			}
 		}
 	}
 
-	private void saveMethod(Class<Event> event, T type, Method m, EventHandler anno) {
+	/**
+	 * Gibt die Eventklasse des Parameters zurück.<br>
+	 * Bei {@link Batch} Methoden ist das der Typ der Liste, also <code>List&lt;PlayerChatEvent&gt;</code>
+	 * 
+	 * @return <code>null</code> wenn der Parameter kein Event ist
+	 */
+	private Class<?> getEventClass(Method m) {
+		Class<?> paramType = m.getParameterTypes()[0];
+
+		if (m.isAnnotationPresent(Batch.class)) {
+			if (paramType != List.class) {
+				return null;
+			}
+			Type generic = m.getGenericParameterTypes()[0];
+			if (!(generic instanceof ParameterizedType)) {
+				return null;
+			}
+			Type element = ((ParameterizedType) generic).getActualTypeArguments()[0];
+			if (element instanceof WildcardType) {
+				element = ((WildcardType) element).getUpperBounds()[0];
+			}
+			if (!(element instanceof Class)) {
+				return null;
+			}
+			paramType = (Class<?>) element;
+		}
+		return isEventClass(paramType) ? paramType : null;
+	}
+
+	private void saveMethod(Class<?> event, T type, Method m, EventHandler anno) {
 		CallObject<T> co = new CallObject<>();
 		co.setMethod(m);
 		co.setType(type);
 		co.setPriority(anno.value());
 		co.setCallAlways(m.isAnnotationPresent(CallAlways.class));
-
-		if (!eventTree.containsKey(event)) {
-			ArrayList<CallObject<T>> methods = new ArrayList<>();
-			methods.add(co);
-			eventTree.put(event, methods);
-
+		co.setTimeBudget(anno.timeBudget());
+		co.setIgnoreCanceled(anno.ignoreCanceled());
+		co.setFilters(createFilters(anno.filter()));
+		co.setId(anno.id());
+		co.setBefore(anno.before());
+		co.setAfter(anno.after());
+		co.setConcurrent(anno.concurrent());
+		co.setReadOnly(m.isAnnotationPresent(ReadOnly.class));
+		if (m.isAnnotationPresent(Batch.class)) {
+			co.setBatchInvoker(Invokers.createBatch(m, type));
 		} else {
-			ArrayList<CallObject<T>> methods = eventTree.get(event);
+			co.setInvoker(Invokers.create(m, type));
+		}
+		saveCallObject(event, co);
+	}
 
-			for (CallObject<T> loopedCo : methods) {
-				if (loopedCo.getMethod().equals(m)) {
-					return;
-				}
+	private void saveCallObject(Class<?> event, CallObject<T> co) {
+		co.setEventClass(event);
+		found.add(co);
+	}
+
+	/**
+	 * Erzeugt pro Filter Klasse eine Instanz
+	 * 
+	 * @return <code>null</code> wenn keine Filter angegeben sind
+	 */
+	@SuppressWarnings("unchecked")
+	private EventFilter<Event>[] createFilters(Class<?>[] classes) {
+		if (classes.length == 0) {
+			return null;
+		}
+		EventFilter<Event>[] filters = (EventFilter<Event>[]) new EventFilter<?>[classes.length];
+		for (int i = 0; i < classes.length; i++) {
+			if (!EventFilter.class.isAssignableFrom(classes[i])) {
+				throw new IllegalArgumentException(classes[i].getName() + " ist kein EventFilter");
+			}
+			try {
+				Constructor<?> constructor = classes[i].getDeclaredConstructor();
+				constructor.setAccessible(true);
+				filters[i] = (EventFilter<Event>) constructor.newInstance();
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				throw new IllegalArgumentException("Filter " + classes[i].getName() + " braucht einen Konstruktor ohne Parameter", ex);
 			}
-			methods.add(co);
 		}
+		return filters;
 	}
 
 	private void staticError() {
@@ -140,16 +203,15 @@ public class ClassScanner<T> {
 	}
 
 	/**
-	 * Pr�ft ob die Angegebe Klasse eine Unterinstanz der Klase Event ist
+	 * Pr�ft ob die Angegebe Klasse Event oder eine Unterklasse davon ist<br>
+	 * Event selbst ist erlaubt, damit Super Listener möglich sind.<br>
+	 * Interfaces wie {@link Cancelable} sind auch erlaubt, die Methode bekommt dann alle Events die es implementieren.<br>
+	 * Interfaces des JDK wie Runnable zählen nicht, siehe {@link EventTypes}.
+	 * 
+	 * @see EventManager#setAllowSuperListeners(boolean)
 	 */
 	private boolean isEventClass(Class<?> cl) {
-		while (cl != Object.class) {
-			cl = cl.getSuperclass();
-			if (cl == Event.class) {
-				return true;
-			}
-		}
-		return false;
+		return Event.class.isAssignableFrom(cl) || EventTypes.isEventInterface(cl);
 	}
 
 }
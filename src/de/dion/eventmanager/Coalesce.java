@@ -0,0 +1,37 @@
+package de.dion.eventmanager;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Events dieser Klasse werden beim callen zusammengefasst, nur das neueste wird an die Listener gegeben.<br>
+ * <br>
+ * Gedacht für Events die in Schüben kommen und bei denen nur der letzte Stand zählt,<br>
+ * z.B. Positionsänderungen. Implementiert das Event {@link Partitioned}, wird pro<br>
+ * {@link Partitioned#getPartitionKey()} zusammengefasst, sonst pro Eventklasse.<br>
+ * <br>
+ * Beispiel:
+ * <pre>
+ * {@literal @}Coalesce(window = 50)
+ * public class PlayerMoveEvent extends Event implements Partitioned {}
+ * </pre>
+ * 
+ * Für einen eigenen Key oder eine Merge Funktion gibt es {@link EventManager#setCoalescing}.
+ * 
+ * @see EventManager#flush()
+ */
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesce {
+
+	/**
+	 * Wie lange in Millisekunden nach dem ersten Event gesammelt wird.<br>
+	 * Bei 0 wird gesammelt bis {@link EventManager#flush()} aufgerufen wird.
+	 */
+	long window() default 0;
+
+}
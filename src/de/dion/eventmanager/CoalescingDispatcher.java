@@ -0,0 +1,294 @@
+package de.dion.eventmanager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Fasst Events mit dem selben Key zusammen, bis ihr Zeitfenster abgelaufen ist oder {@link #flush()} aufgerufen wird.<br>
+ * <br>
+ * Die Regeln kommen aus der {@link Coalesce} Annotation oder aus {@link #setRule}.<br>
+ * Welche Eventklasse welche Regel hat, wird in einem {@link ClassValue} gecached. Der EventManager<br>
+ * übernimmt das zusätzlich in die {@link DispatchTable#isCoalesced() DispatchTable}, Events ohne Regel<br>
+ * kosten beim callen also keinen eigenen Lookup. Der Timer Thread wird erst beim ersten Zeitfenster gestartet.<br>
+ * <br>
+ * Fällige Events gibt der Timer an <code>expired</code> weiter, Fehler dabei gehen an <code>onError</code>.<br>
+ * Jedes Zeitfenster ist ein eigenes Objekt, ein Timer der nach {@link #flush()} noch läuft,<br>
+ * beendet also nie das nächste Zeitfenster des selben Keys.
+ * 
+ * @see EventManager#setCoalescing
+ */
+public class CoalescingDispatcher {
+
+	private final Consumer<Event> dispatcher;
+	private final Consumer<Event> expired;
+	private final BiConsumer<Event, Throwable> onError;
+	private final Map<Class<?>, Rule> registered = new ConcurrentHashMap<>();
+	private final Map<List<Object>, Window> pending = new ConcurrentHashMap<>();
+	private final LongAdder coalesced = new LongAdder();
+	private volatile RuleCache rules = new RuleCache();
+	private volatile ScheduledThreadPoolExecutor timer;
+	private volatile Runnable onRulesChanged;
+	private volatile boolean closed;
+
+	/**
+	 * @param dispatcher Bekommt die zusammengefassten Events, wenn sie fällig sind
+	 */
+	public CoalescingDispatcher(Consumer<Event> dispatcher) {
+		this(dispatcher, dispatcher, (event, error) -> {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+		});
+	}
+
+	/**
+	 * @param dispatcher Bekommt die Events aus {@link #flush()} im aufrufenden Thread
+	 * @param expired    Bekommt die Events deren Zeitfenster abgelaufen ist, auf dem Timer Thread
+	 * @param onError    Bekommt Fehler aus <code>expired</code>
+	 */
+	public CoalescingDispatcher(Consumer<Event> dispatcher, Consumer<Event> expired, BiConsumer<Event, Throwable> onError) {
+		this.dispatcher = dispatcher;
+		this.expired = expired;
+		this.onError = onError;
+	}
+
+	/**
+	 * Nimmt das Event auf, wenn es für seine Klasse eine Regel gibt
+	 * 
+	 * @return FALSE wenn das Event normal gecallt werden muss, auch nach {@link #shutdown()}
+	 */
+	public boolean offer(Event event) {
+		Rule rule = rules.get(event.getClass());
+		if (rule == null || closed) {
+			return false;
+		}
+
+		List<Object> key = Arrays.asList(event.getClass(), rule.key.apply(event));
+		Window[] opened = new Window[1];
+		pending.compute(key, (k, window) -> {
+			if (window == null) {
+				opened[0] = new Window(event);
+				return opened[0];
+			}
+			coalesced.increment();
+			window.event = rule.merge.apply(window.event, event);
+			return window;
+		});
+
+		Window window = opened[0];
+		if (window != null && rule.window > 0) {
+			ScheduledThreadPoolExecutor current = getTimer();
+			if (current != null) {
+				try {
+					window.timeout = current.schedule(() -> expire(key, window), rule.window, TimeUnit.MILLISECONDS);
+				} catch (RejectedExecutionException ex) {
+					// Gerade beendet, dann holt das dispatch unten das Event ab
+				}
+			}
+		}
+		if (closed) {
+			dispatch(key);
+		}
+		return true;
+	}
+
+	/**
+	 * TRUE wenn Events der Klasse zusammengefasst werden
+	 */
+	public boolean hasRule(Class<?> eventClass) {
+		return rules.get(eventClass) != null;
+	}
+
+	/**
+	 * Gibt alle gesammelten Events sofort im aktuellen Thread weiter
+	 */
+	public void flush() {
+		for (List<Object> key : pending.keySet()) {
+			dispatch(key);
+		}
+	}
+
+	/**
+	 * @param window Zeitfenster in Millisekunden, 0 bis {@link #flush()}
+	 * @param key    Events mit dem selben Key werden zusammengefasst
+	 * @param merge  Bekommt das bisherige und das neue Event und gibt das zurück, das behalten wird
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends Event> void setRule(Class<E> eventClass, long window, Function<? super E, ?> key, BinaryOperator<E> merge) {
+		if (window < 0) {
+			throw new IllegalArgumentException("Das Zeitfenster darf nicht negativ sein");
+		}
+		registered.put(eventClass, new Rule(window, (Function<Event, ?>) key, (BinaryOperator<Event>) merge));
+		rules = new RuleCache();
+		rulesChanged();
+	}
+
+	public void removeRule(Class<? extends Event> eventClass) {
+		registered.remove(eventClass);
+		rules = new RuleCache();
+		rulesChanged();
+	}
+
+	/**
+	 * Wird nach jeder Änderung an den Regeln aufgerufen, damit der EventManager seine Tabellen neu baut
+	 */
+	void setOnRulesChanged(Runnable onRulesChanged) {
+		this.onRulesChanged = onRulesChanged;
+	}
+
+	private void rulesChanged() {
+		Runnable callback = onRulesChanged;
+		if (callback != null) {
+			callback.run();
+		}
+	}
+
+	/**
+	 * Wie viele Events zusammengefasst und dadurch nicht einzeln gecallt wurden
+	 */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Anzahl der Events die gerade auf ihr Zeitfenster oder {@link #flush()} warten
+	 */
+	public int getPending() {
+		return pending.size();
+	}
+
+	/**
+	 * Beendet den Timer und gibt alle gesammelten Events im aktuellen Thread weiter.<br>
+	 * Danach nimmt {@link #offer(Event)} keine Events mehr an.
+	 */
+	public void shutdown() {
+		closed = true;
+		ScheduledThreadPoolExecutor current;
+		synchronized (this) {
+			current = timer;
+		}
+		if (current != null) {
+			current.shutdownNow();
+		}
+		flush();
+	}
+
+	public boolean isShutdown() {
+		return closed;
+	}
+
+	private void dispatch(List<Object> key) {
+		Window window = pending.remove(key);
+		if (window != null) {
+			ScheduledFuture<?> timeout = window.timeout;
+			if (timeout != null) {
+				timeout.cancel(false);
+			}
+			dispatcher.accept(window.event);
+		}
+	}
+
+	/**
+	 * Läuft auf dem Timer Thread, ein Fehler darf ihn nicht unbemerkt beenden.<br>
+	 * Entfernt wird nur genau das Zeitfenster für das der Timer gestartet wurde.
+	 */
+	private void expire(List<Object> key, Window window) {
+		if (pending.remove(key, window)) {
+			Event event = window.event;
+			try {
+				expired.accept(event);
+			} catch (Throwable ex) {
+				onError.accept(event, ex);
+			}
+		}
+	}
+
+	/**
+	 * @return <code>null</code> nach {@link #shutdown()}
+	 */
+	private ScheduledThreadPoolExecutor getTimer() {
+		ScheduledThreadPoolExecutor current = timer;
+		if (current == null) {
+			synchronized (this) {
+				current = timer;
+				if (current == null) {
+					if (closed) {
+						return null;
+					}
+					current = new ScheduledThreadPoolExecutor(1, r -> {
+						Thread thread = new Thread(r, "EventManager-Coalescer");
+						thread.setDaemon(true);
+						return thread;
+					});
+					current.setRemoveOnCancelPolicy(true);
+					timer = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static Object getDefaultKey(Event event) {
+		return event instanceof Partitioned ? ((Partitioned) event).getPartitionKey() : null;
+	}
+
+	/**
+	 * Ein Zeitfenster eines Keys. Das Event wird nur innerhalb von <code>pending.compute</code> ersetzt<br>
+	 * und erst nach dem Entfernen aus <code>pending</code> gelesen, die Map sorgt für die Sichtbarkeit.
+	 */
+	private static final class Window {
+
+		Event event;
+		volatile ScheduledFuture<?> timeout;
+
+		Window(Event event) {
+			this.event = event;
+		}
+	}
+
+	private static final class Rule {
+
+		final long window;
+		final Function<Event, ?> key;
+		final BinaryOperator<Event> merge;
+
+		Rule(long window, Function<Event, ?> key, BinaryOperator<Event> merge) {
+			this.window = window;
+			this.key = key;
+			this.merge = merge;
+		}
+	}
+
+	/**
+	 * Registrierte Regeln gelten auch für Unterklassen, die nächste Superklasse gewinnt
+	 */
+	private final class RuleCache extends ClassValue<Rule> {
+
+		@Override
+		protected Rule computeValue(Class<?> eventClass) {
+			for (Class<?> cl = eventClass; cl != null && cl != Object.class; cl = cl.getSuperclass()) {
+				Rule rule = registered.get(cl);
+				if (rule != null) {
+					return rule;
+				}
+			}
+			Coalesce anno = eventClass.getAnnotation(Coalesce.class);
+			if (anno != null) {
+				return new Rule(anno.window(), CoalescingDispatcher::getDefaultKey, (older, newer) -> newer);
+			}
+			return null;
+		}
+	}
+}
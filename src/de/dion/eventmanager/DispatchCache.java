@@ -0,0 +1,59 @@
+package de.dion.eventmanager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Cached die {@link DispatchTable} pro konkreter Eventklasse.<br>
+ * <br>
+ * Ein {@link ClassValue} lässt sich nicht komplett leeren, deshalb wird beim<br>
+ * Invalidieren einfach ein neuer Cache erzeugt. Zusammen mit dem unveränderlichen<br>
+ * eventTree bildet er den Snapshot der {@link EventRegistry}.
+ */
+final class DispatchCache<T> extends ClassValue<DispatchTable<T>> {
+
+	private final Map<Class<?>, List<CallObject<T>>> eventTree;
+	private final boolean allowSuperListeners;
+	private final Set<Object> disabledListeners;
+	private final Set<Class<?>> compiledClasses;
+	private final Predicate<Class<?>> coalescing;
+
+	/**
+	 * @param compiledClasses Bekommt jede Eventklasse für die eine Tabelle gebaut wurde
+	 * @param coalescing      Ob eine Eventklasse zusammengefasst wird, <code>null</code> für keine
+	 */
+	DispatchCache(Map<Class<?>, List<CallObject<T>>> eventTree, boolean allowSuperListeners,
+			Set<Object> disabledListeners, Set<Class<?>> compiledClasses, Predicate<Class<?>> coalescing) {
+		this.eventTree = eventTree;
+		this.allowSuperListeners = allowSuperListeners;
+		this.disabledListeners = disabledListeners;
+		this.compiledClasses = compiledClasses;
+		this.coalescing = coalescing;
+	}
+
+	Map<Class<?>, List<CallObject<T>>> getEventTree() {
+		return eventTree;
+	}
+
+	boolean isAllowSuperListeners() {
+		return allowSuperListeners;
+	}
+
+	boolean isDisabled(Object listener) {
+		return disabledListeners.contains(listener);
+	}
+
+	Set<Object> getDisabledListeners() {
+		return disabledListeners;
+	}
+
+	@Override
+	protected DispatchTable<T> computeValue(Class<?> eventClass) {
+		DispatchTable<T> table = DispatchTable.compile(eventClass, eventTree, allowSuperListeners, disabledListeners,
+				coalescing != null && coalescing.test(eventClass));
+		compiledClasses.add(eventClass);
+		return table;
+	}
+}
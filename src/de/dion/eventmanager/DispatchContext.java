@@ -0,0 +1,42 @@
+package de.dion.eventmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Zustand eines einzelnen Aufrufs von {@link EventManager#callAsync(de.dion.eventmanager.events.Event)}.<br>
+ * <br>
+ * Sammelt die Fehler der Listener und stoppt das callen,<br>
+ * sobald das zugehörige Future abgebrochen wurde.<br>
+ * Fehler können von mehreren Threads gleichzeitig kommen, wenn {@link EventHandler#concurrent()} Methoden<br>
+ * parallel laufen. Gelesen werden sie erst nachdem alle fertig sind.
+ */
+final class DispatchContext {
+
+	private final Future<?> future;
+	private List<Throwable> errors;
+
+	DispatchContext(Future<?> future) {
+		this.future = future;
+	}
+
+	boolean isCancelled() {
+		return future != null && future.isCancelled();
+	}
+
+	synchronized void addError(Throwable error) {
+		if (errors == null) {
+			errors = new ArrayList<>();
+		}
+		errors.add(error);
+	}
+
+	boolean hasErrors() {
+		return errors != null;
+	}
+
+	List<Throwable> getErrors() {
+		return errors;
+	}
+}
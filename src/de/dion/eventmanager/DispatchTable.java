@@ -0,0 +1,210 @@
+package de.dion.eventmanager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vorberechnete, unveränderliche Liste aller Listener einer konkreten Eventklasse.<br>
+ * <br>
+ * Enthält die Listener der Klasse selbst, die ihrer Interfaces und (falls erlaubt) die ihrer Superklassen,<br>
+ * bereits nach Priorität sortiert. Beim callen muss so nur noch ein Array<br>
+ * durchlaufen werden, ohne HashMap Zugriffe oder Hierarchie Durchlauf.<br>
+ * <br>
+ * Für Events die schon gecancelt sind gibt es eine zweite Liste ohne die Methoden mit<br>
+ * {@link EventHandler#ignoreCanceled()}, die müssen dann gar nicht erst geprüft werden.<br>
+ * <br>
+ * {@link EventHandler#before()} und {@link EventHandler#after()} sind bereits über den {@link ListenerSchedule}<br>
+ * eingeordnet, zusammen mit den Stufen der {@link EventHandler#concurrent()} Methoden.<br>
+ * {@link ReadOnly} Methoden stehen in einer eigenen Liste, da sie erst nach allen anderen laufen.<br>
+ * Ob die Klasse eine {@link Coalesce} Regel hat, steht ebenfalls in der Tabelle.
+ * 
+ * @see DispatchCache
+ */
+public final class DispatchTable<T> {
+
+	private static final Comparator<CallObject<?>> BY_PRIORITY = Comparator.comparing(CallObject::getPriority);
+
+	private final CallObject<T>[] listeners;
+	private final CallObject<T>[] observers;
+	private final CallObject<T>[] canceledListeners;
+	/** Position jedes Eintrags aus canceledListeners in listeners */
+	private final int[] canceledIndex;
+	/** Siehe {@link ListenerSchedule#stages(CallObject[])} */
+	private final int[] stageEnd;
+	private final boolean coalesced;
+	private final boolean internal;
+	/** Wird von {@link #withoutInternal()} beim ersten Aufruf gebaut */
+	private volatile DispatchTable<T> withoutInternal;
+
+	private DispatchTable(List<CallObject<T>> ordered, boolean coalesced) {
+		this.coalesced = coalesced;
+		List<CallObject<T>> mutating = new ArrayList<>(ordered.size());
+		List<CallObject<T>> readOnly = new ArrayList<>();
+		boolean internal = false;
+		for (CallObject<T> co : ordered) {
+			internal |= co.isInternal();
+			if (co.isReadOnly()) {
+				readOnly.add(co);
+			} else {
+				mutating.add(co);
+			}
+		}
+		this.internal = internal;
+		this.listeners = toArray(mutating);
+		this.observers = toArray(readOnly);
+		this.stageEnd = ListenerSchedule.stages(listeners);
+
+		List<CallObject<T>> canceled = new ArrayList<>(listeners.length);
+		int[] index = new int[listeners.length];
+		for (int i = 0; i < listeners.length; i++) {
+			if (!listeners[i].isIgnoreCanceled()) {
+				index[canceled.size()] = i;
+				canceled.add(listeners[i]);
+			}
+		}
+		if (canceled.size() == listeners.length) {
+			canceledListeners = listeners;
+		} else {
+			canceledListeners = toArray(canceled);
+		}
+		canceledIndex = index;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> CallObject<T>[] toArray(List<CallObject<T>> methods) {
+		return methods.toArray((CallObject<T>[]) new CallObject<?>[methods.size()]);
+	}
+
+	/**
+	 * Alle Listener ohne {@link ReadOnly}, in Aufrufreihenfolge
+	 */
+	public CallObject<T>[] getListeners() {
+		return listeners;
+	}
+
+	/**
+	 * Die {@link ReadOnly} Listener
+	 */
+	public CallObject<T>[] getObservers() {
+		return observers;
+	}
+
+	/**
+	 * Alle Listener ohne {@link EventHandler#ignoreCanceled()}
+	 */
+	public CallObject<T>[] getCanceledListeners() {
+		return canceledListeners;
+	}
+
+	/**
+	 * Gibt für einen Index aus {@link #getCanceledListeners()} den Index in {@link #getListeners()} zurück
+	 */
+	public int toListenerIndex(int canceledIndex) {
+		return this.canceledIndex[canceledIndex];
+	}
+
+	/**
+	 * TRUE wenn mindestens zwei {@link EventHandler#concurrent()} Methoden gleichzeitig laufen können
+	 */
+	public boolean hasStages() {
+		return stageEnd != null;
+	}
+
+	/**
+	 * Ende (exklusiv) der Stufe die bei diesem Index aus {@link #getListeners()} beginnt,<br>
+	 * <code>index + 1</code> für Methoden die alleine laufen
+	 */
+	public int getStageEnd(int index) {
+		return stageEnd != null ? stageEnd[index] : index + 1;
+	}
+
+	public boolean isEmpty() {
+		return listeners.length == 0 && observers.length == 0;
+	}
+
+	/**
+	 * TRUE wenn Events der Klasse vom {@link CoalescingDispatcher} zusammengefasst werden
+	 */
+	public boolean isCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * Die Tabelle ohne {@link CallObject#isInternal() interne} Methoden, z.B. für Events aus einem {@link EventPool},<br>
+	 * die nicht an einen {@link EventPublisher} gehen dürfen
+	 */
+	DispatchTable<T> withoutInternal() {
+		if (!internal) {
+			return this;
+		}
+		DispatchTable<T> table = withoutInternal;
+		if (table == null) {
+			List<CallObject<T>> ordered = new ArrayList<>(listeners.length + observers.length);
+			for (CallObject<T> co : listeners) {
+				if (!co.isInternal()) {
+					ordered.add(co);
+				}
+			}
+			for (CallObject<T> co : observers) {
+				if (!co.isInternal()) {
+					ordered.add(co);
+				}
+			}
+			table = new DispatchTable<>(ordered, coalesced);
+			withoutInternal = table;
+		}
+		return table;
+	}
+
+	/**
+	 * Baut die Tabelle für die angegebene Eventklasse.<br>
+	 * Listener der genaueren Klasse stehen bei gleicher Priorität vor denen der Superklassen,<br>
+	 * danach kommen die Listener der Interfaces. Interface Listener werden immer aufgerufen,<br>
+	 * da sie nicht für eine bestimmte Klasse registriert sind.<br>
+	 * Methoden von deaktivierten Listenern werden weggelassen, außer sie haben {@link CallAlways}.<br>
+	 * Ein Zyklus in before/after wird normalerweise schon beim Registrieren abgelehnt. Tritt er nur bei dieser<br>
+	 * konkreten Klasse auf, wirft jedes callen der Klasse eine IllegalStateException mit dem Zyklus,<br>
+	 * statt die Methoden in einer beliebigen Reihenfolge aufzurufen.
+	 * 
+	 * @see EventManager#setCacheListenerState(boolean)
+	 */
+	static <T> DispatchTable<T> compile(Class<?> eventClass, Map<Class<?>, ? extends List<CallObject<T>>> eventTree,
+			boolean allowSuperListeners, Set<Object> disabledListeners, boolean coalesced) {
+		List<CallObject<T>> merged = merge(eventClass, eventTree, allowSuperListeners, disabledListeners);
+		return new DispatchTable<>(ListenerSchedule.sort(merged), coalesced);
+	}
+
+	/**
+	 * Sammelt alle Listener der Eventklasse, nach Priorität sortiert aber noch ohne before/after
+	 */
+	static <T> List<CallObject<T>> merge(Class<?> eventClass, Map<Class<?>, ? extends List<CallObject<T>>> eventTree,
+			boolean allowSuperListeners, Set<Object> disabledListeners) {
+		List<CallObject<T>> merged = new ArrayList<>();
+
+		Class<?>[] classes = EventTypes.getSuperclasses(eventClass);
+		int depth = allowSuperListeners ? classes.length : Math.min(1, classes.length);
+		for (int i = 0; i < depth; i++) {
+			addListeners(merged, eventTree.get(classes[i]), disabledListeners);
+		}
+		for (Class<?> in : EventTypes.getInterfaces(eventClass)) {
+			addListeners(merged, eventTree.get(in), disabledListeners);
+		}
+
+		// List.sort ist stabil, die Reihenfolge innerhalb einer Priorität bleibt erhalten
+		merged.sort(BY_PRIORITY);
+		return merged;
+	}
+
+	private static <T> void addListeners(List<CallObject<T>> merged, List<CallObject<T>> methods, Set<Object> disabledListeners) {
+		if (methods != null) {
+			for (CallObject<T> co : methods) {
+				if (co.isCallAlways() || !disabledListeners.contains(co.getType())) {
+					merged.add(co);
+				}
+			}
+		}
+	}
+}
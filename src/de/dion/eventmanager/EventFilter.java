@@ -0,0 +1,32 @@
+package de.dion.eventmanager;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Filter der vor dem Aufruf einer Event Methode geprüft wird.<br>
+ * <br>
+ * Wird über {@link EventHandler#filter()} angegeben und braucht einen Konstruktor ohne Parameter.<br>
+ * Pro Event Methode wird beim Registrieren eine Instanz erzeugt, der Filter sollte also keinen<br>
+ * Zustand haben der sich pro Event ändert.<br>
+ * <br>
+ * Beispiel:<br>
+ * <code>
+ * public class OnlyPeter implements EventFilter&lt;PlayerChatEvent&gt; {<br>
+ * &nbsp;&nbsp;public boolean test(PlayerChatEvent e) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;return e.getSender().equals("Peter");<br>
+ * &nbsp;&nbsp;}<br>
+ * }<br>
+ * <br>
+ * {@literal @}EventHandler(filter = OnlyPeter.class)
+ * </code>
+ *
+ * @param <E> Die Eventklasse der Methode oder eine Superklasse davon
+ */
+@FunctionalInterface
+public interface EventFilter<E extends Event> {
+
+	/**
+	 * @return FALSE wenn die Event Methode für dieses Event nicht aufgerufen werden soll
+	 */
+	boolean test(E event);
+}
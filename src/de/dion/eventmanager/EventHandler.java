@@ -11,4 +11,53 @@ public @interface EventHandler {
 	
 	Priority value() default Priority.Normal;
 	
+	/**
+	 * Wie lange die Methode in Millisekunden laufen darf, bevor der {@link ListenerWatchdog} sie meldet.<br>
+	 * 0 nimmt das Standardbudget aus {@link EventManager#enableWatchdog(long, int)}
+	 */
+	long timeBudget() default 0;
+	
+	/**
+	 * Wenn TRUE wird die Methode für gecancelte Events nicht aufgerufen,<br>
+	 * das spart das <code>if (e.isCanceled()) return;</code> am Anfang der Methode.
+	 */
+	boolean ignoreCanceled() default false;
+	
+	/**
+	 * Filter die vor dem Aufruf geprüft werden, alle müssen TRUE zurückgeben
+	 * 
+	 * @see EventFilter
+	 */
+	Class<? extends EventFilter<?>>[] filter() default {};
+	
+	/**
+	 * Name über den sich andere Methoden mit {@link #before()} und {@link #after()} auf diese beziehen.<br>
+	 * Ohne id passt die Methode auf <code>Klasse#methode</code>. Außerdem passt jede Methode auf den einfachen<br>
+	 * und den vollen Namen ihrer Listener Klasse, so kann man sich auf einen ganzen Listener oder ein Plugin beziehen.
+	 */
+	String id() default "";
+	
+	/**
+	 * Die Methode läuft vor allen Methoden mit diesen Namen, auch wenn die eine höhere Priorität haben.<br>
+	 * Namen die nicht registriert sind werden ignoriert. Zyklen werden beim Registrieren<br>
+	 * mit einer IllegalStateException abgelehnt.
+	 * 
+	 * @see #id()
+	 */
+	String[] before() default {};
+	
+	/**
+	 * Die Methode läuft nach allen Methoden mit diesen Namen, auch wenn die eine niedrigere Priorität haben.
+	 * 
+	 * @see #before()
+	 */
+	String[] after() default {};
+	
+	/**
+	 * Wenn TRUE hängt die Methode von keiner anderen ab. Direkt aufeinander folgende concurrent Methoden<br>
+	 * mit gleicher Priorität und ohne before/after Beziehung untereinander laufen gleichzeitig,<br>
+	 * wenn ein Pool mit {@link EventManager#setStagePool(java.util.concurrent.ForkJoinPool)} gesetzt ist.
+	 */
+	boolean concurrent() default false;
+	
 }
@@ -0,0 +1,19 @@
+package de.dion.eventmanager;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Typisierter Aufrufer für genau eine Event Methode.<br>
+ * <br>
+ * Wird beim Registrieren vom {@link ClassScanner} erzeugt und ist bei<br>
+ * Instanz Listenern bereits an das Listener Objekt gebunden.<br>
+ * Dadurch fällt beim callen das reflektive {@code Method.invoke} weg.
+ * 
+ * @see Invokers
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+	void invoke(Event event) throws Throwable;
+
+}
@@ -1,11 +1,28 @@
 package de.dion.eventmanager;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import de.dion.eventmanager.events.Event;
+import de.dion.eventmanager.metrics.JfrMetricsRecorder;
+import de.dion.eventmanager.metrics.ListenerMetrics;
+import de.dion.eventmanager.metrics.MetricsRecorder;
 
 /**
  * @version 1.1
@@ -13,29 +30,85 @@ import de.dion.eventmanager.events.Event;
  */
 public abstract class EventManager<T> {
 
-	private HashMap<Class<? extends Event>, ArrayList<CallObject<T>>> eventTree = new HashMap<>();
-	private boolean allowSuperListeners = false;
-	ClassScanner<T> scanner;
+	private final EventRegistry<T> registry = new EventRegistry<>();
+	private final AsyncDispatcher asyncDispatcher;
+	private volatile RingBufferDispatcher ringBuffer;
+	private volatile PartitionedDispatcher partitions;
+	private volatile MetricsRecorder metricsRecorder;
+	private volatile ListenerWatchdog watchdog;
+	private volatile boolean cacheListenerState;
+	private volatile ThreadLocal<LocalDispatchTables<T>> localTables;
+	private volatile ForkJoinPool stagePool;
+	private volatile Executor observerExecutor;
+	private volatile boolean awaitObservers;
+	private volatile ListenerExceptionHandler exceptionHandler = new LoggingExceptionHandler();
+	private final CoalescingDispatcher coalescer = new CoalescingDispatcher(this::dispatch, this::dispatchExpired, this::reportError);
 
 	public EventManager() {
-		scanner = new ClassScanner<>(eventTree);
+		asyncDispatcher = new AsyncDispatcher(null, this::reportError);
+		initRegistry();
+	}
+
+	/**
+	 * @param asyncExecutor Executor auf dem asynchrone Events ausgeführt werden
+	 * @see #setAsyncExecutor(Executor)
+	 */
+	public EventManager(Executor asyncExecutor) {
+		checkNull(asyncExecutor);
+		asyncDispatcher = new AsyncDispatcher(asyncExecutor, this::reportError);
+		initRegistry();
+	}
+
+	/**
+	 * Die Tabellen wissen ob ihre Klasse zusammengefasst wird und werden bei jeder Änderung der Regeln neu gebaut.<br>
+	 * Abgemeldete Methoden werden dem {@link MetricsRecorder} gemeldet, damit er ihre Messwerte entfernen kann.
+	 */
+	private void initRegistry() {
+		coalescer.setOnRulesChanged(() -> registry.setCoalescing(coalescer::hasRule));
+		registry.setCoalescing(coalescer::hasRule);
+		registry.setOnRemoved(removed -> {
+			MetricsRecorder recorder = metricsRecorder;
+			if (recorder != null) {
+				recorder.listenersRemoved(removed);
+			}
+		});
 	}
 
 	/**
 	 * L�scht alle gespeicherten Events aus dem eventTree
 	 */
 	public void unregisterAll() {
-		eventTree.clear();
+		registry.clear();
+	}
+
+	/**
+	 * Meldet alle Event Methoden dieses Listeners ab.<br>
+	 * Der Parameter ist das selbe Objekt (oder die Klasse) wie bei {@link #registerEvents(T[])}
+	 */
+	public void unregister(T listener) {
+		checkNull(listener);
+		registry.unregister(listener);
 	}
 
 	/**
-	 * Sortiert alle Events im eventTree der Prioritaet nach<br>
-	 * von <b>HIGHEST</b> bis <b>LOWEST</b>
+	 * Meldet alle Event Methoden ab, die von der Klasse selbst oder<br>
+	 * von Instanzen der Klasse registriert wurden
+	 */
+	public void unregisterClass(Class<?> listenerClass) {
+		checkNull(listenerClass);
+		registry.unregisterClass(listenerClass);
+	}
+
+	/**
+	 * Die Events im eventTree sind immer der Priorität nach sortiert<br>
+	 * von <b>HIGHEST</b> bis <b>LOWEST</b>, da neue Methoden direkt an der<br>
+	 * richtigen Stelle eingefügt werden. Diese Methode macht deshalb nichts mehr.
 	 * 
 	 * @see EventHandler
+	 * @deprecated Nicht mehr nötig
 	 */
+	@Deprecated
 	public void sortEvents() {
-		scanner.sortEvents();
 	}
 
 	/**
@@ -54,11 +127,13 @@ public abstract class EventManager<T> {
 	 * <code>registerEvents(new ChatListener());</code><br>
 	 * oder<br>
 	 * <code>registerEvents(ChatListener.class);</code>
+	 * 
+	 * @return Handle zum Abmelden der registrierten Methoden
 	 */
 	@SuppressWarnings("unchecked")
-	public void registerEvents(T... instances) {
+	public Subscription registerEvents(T... instances) {
 		checkNull(instances);
-		scanner.registerEvents(instances);
+		return registry.register(Arrays.asList(instances));
 	}
 
 	/**
@@ -69,36 +144,310 @@ public abstract class EventManager<T> {
 	 * Beispiel:<br>
 	 * <code>registerEvents(ModuleManager.getAllModules());</code>
 	 */
-	public void registerEvents(Collection<? extends T> instances) {
+	public Subscription registerEvents(Collection<? extends T> instances) {
 		checkNull(instances);
-		scanner.registerEvents(instances);
+		return registry.register(instances);
+	}
+
+	/**
+	 * Fasst mehrere Registrierungen zusammen, der eventTree wird erst am Ende<br>
+	 * einmal neu veröffentlicht.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * batch(() -> {<br>
+	 * &nbsp;&nbsp;&nbsp;&nbsp;for (Module m : modules) registerEvents(m);<br>
+	 * &nbsp;&nbsp;&nbsp;&nbsp;unregister(oldModule);<br>
+	 * });
+	 * </code>
+	 */
+	public void batch(Runnable changes) {
+		checkNull(changes);
+		registry.batch(changes);
 	}
 
 	/**
 	 * Ruft die Event Methoden in den gespeicherten Listenern auf<br>
-	 * Parameter: Something extends Event
+	 * Parameter: Something extends Event<br>
+	 * <br>
+	 * Asynchrone Events werden auf dem Executor ausgeführt.<br>
+	 * Ist der Ring Buffer aktiv, wird jedes Event nur in den Ring geschrieben.<br>
+	 * {@link Partitioned} Events laufen bei aktiver Partitionierung auf ihrer Lane.<br>
+	 * Events mit {@link Coalesce} werden gesammelt und erst nach ihrem Zeitfenster<br>
+	 * oder bei {@link #flush()} gecallt.
+	 * 
+	 * @see #setAsyncExecutor(Executor)
+	 * @see #enableRingBuffer(int, int, WaitStrategy)
+	 * @see #enablePartitioning(int)
+	 * @see #setCoalescing
 	 */
 	public void call(Event event) {
-		if (event.isAsynchronous()) {
-			Thread asyncEvent = new Thread(new Runnable() {
+		DispatchTable<T> table = getTable(event.getClass());
+		if (!table.isCoalesced() || !coalescer.offer(event)) {
+			dispatch(event, table, event.isAsynchronous());
+		}
+	}
 
-				@Override
-				public void run() {
-					callListeners(event);
-				}
-			});
-			asyncEvent.start();
+	private void dispatch(Event event) {
+		dispatch(event, null, event.isAsynchronous());
+	}
+
+	/**
+	 * Fällige Events vom Timer des Coalescers. Synchrone Events laufen auf dem Executor für<br>
+	 * asynchrone Events weiter, damit ein langsamer Listener nicht die anderen Zeitfenster aufhält.
+	 */
+	private void dispatchExpired(Event event) {
+		dispatch(event, null, true);
+	}
+
+	/**
+	 * @param table Tabelle für den Aufruf im aktuellen Thread, bei <code>null</code> wird sie dann gesucht
+	 * @param async TRUE wenn das Event nicht im aktuellen Thread gecallt werden soll
+	 */
+	private void dispatch(Event event, DispatchTable<T> table, boolean async) {
+		RingBufferDispatcher ring = ringBuffer;
+		PartitionedDispatcher lanes = partitions;
+		Object key;
+
+		// Ein gerade beendeter Ring oder Dispatcher nimmt nichts mehr an, dann geht es normal weiter
+		if (ring != null && ring.tryPublish(event)) {
+			return;
+		}
+		if (lanes != null && event instanceof Partitioned && (key = ((Partitioned) event).getPartitionKey()) != null
+				&& lanes.tryDispatch(key, event, () -> callListeners(event))) {
+			return;
+		}
+		if (async) {
+			asyncDispatcher.dispatch(event, () -> callListeners(event));
 		} else {
-			callListeners(event);
+			callListeners(event, table != null ? table : getTable(event.getClass()), null, false);
+		}
+	}
+
+	/**
+	 * Callt alle gesammelten {@link Coalesce} Events sofort, ohne auf ihr Zeitfenster zu warten.<br>
+	 * Bei einem Zeitfenster von 0 werden sie nur hier gecallt.
+	 */
+	public void flush() {
+		coalescer.flush();
+	}
+
+	/**
+	 * Fasst Events der Klasse (und ihrer Unterklassen) beim callen zusammen, wie mit {@link Coalesce}<br>
+	 * aber mit eigenem Key und eigener Merge Funktion. Überschreibt die Annotation.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * setCoalescing(PlayerChatEvent.class, 100, PlayerChatEvent::getSender,<br>
+	 * &nbsp;&nbsp;&nbsp;&nbsp;(older, newer) -> newer.init(newer.getSender(), older.getMessage() + "\n" + newer.getMessage()));
+	 * </code>
+	 * 
+	 * @param window Zeitfenster in Millisekunden ab dem ersten Event, 0 bis {@link #flush()}
+	 * @param key    Events mit dem selben Key werden zusammengefasst
+	 * @param merge  Bekommt das bisherige und das neue Event und gibt das zurück, das gecallt wird
+	 */
+	public <E extends Event> void setCoalescing(Class<E> eventClass, long window, Function<? super E, ?> key, BinaryOperator<E> merge) {
+		checkNull(eventClass);
+		checkNull(key);
+		checkNull(merge);
+		coalescer.setRule(eventClass, window, key, merge);
+	}
+
+	/**
+	 * Entfernt die Regel aus {@link #setCoalescing}, eine {@link Coalesce} Annotation gilt danach wieder
+	 */
+	public void removeCoalescing(Class<? extends Event> eventClass) {
+		coalescer.removeRule(eventClass);
+	}
+
+	/**
+	 * Beendet die Threads des EventManagers. Gesammelte {@link Coalesce} Events werden vorher noch gecallt,<br>
+	 * danach werden Ring Buffer, Partitionierung und Watchdog wie mit ihren disable Methoden beendet.<br>
+	 * Events die danach gecallt werden, laufen ohne Zusammenfassen normal weiter.<br>
+	 * Der Executor für asynchrone Events wird nicht beendet.
+	 */
+	public void shutdown() throws InterruptedException {
+		coalescer.shutdown();
+		disableRingBuffer();
+		disablePartitioning();
+		disableWatchdog();
+	}
+
+	/**
+	 * Enthält wie viele Events zusammengefasst wurden und wie viele gerade warten
+	 */
+	public CoalescingDispatcher getCoalescer() {
+		return coalescer;
+	}
+
+	/**
+	 * Stellt alle Events der Klasse als {@link Flow.Publisher} bereit.<br>
+	 * Die Subscriber laufen auf dem Executor für asynchrone Events und puffern je 256 Events.
+	 * 
+	 * @see #publisher(Class, Executor, int)
+	 */
+	public <E extends Event> EventPublisher<E> publisher(Class<E> eventClass) {
+		checkNull(eventClass);
+		return publisher(eventClass, asyncDispatcher.getExecutor(eventClass), Flow.defaultBufferSize());
+	}
+
+	/**
+	 * Stellt alle Events der Klasse als {@link Flow.Publisher} bereit.<br>
+	 * <br>
+	 * Die Events werden nach allen Listenern veröffentlicht, also mit ihrem endgültigen Zustand.<br>
+	 * Unterklassen kommen nur bei {@link #setAllowSuperListeners(boolean)} an.<br>
+	 * Mit {@link EventPublisher#close()} wird der Publisher wieder abgemeldet.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * eventManager.publisher(PlayerChatEvent.class).subscribe(subscriber);
+	 * </code>
+	 * 
+	 * @param bufferSize Events pro Subscriber, die noch nicht angefordert wurden. Weitere werden verworfen
+	 */
+	public <E extends Event> EventPublisher<E> publisher(Class<E> eventClass, Executor executor, int bufferSize) {
+		checkNull(eventClass);
+		checkNull(executor);
+		EventPublisher<E> publisher = new EventPublisher<>(eventClass, executor, bufferSize);
+		publisher.setSubscription(registry.registerCallObjects(Collections.singletonList(publisher.createCallObject())));
+		return publisher;
+	}
+
+	/**
+	 * Callt jedes Event des Publishers, mit höchstens 64 angeforderten Events auf einmal
+	 * 
+	 * @return Zum Beenden mit {@link EventSubscriber#cancel()}
+	 */
+	public EventSubscriber subscribeTo(Flow.Publisher<? extends Event> upstream) {
+		return subscribeTo(upstream, 64);
+	}
+
+	/**
+	 * Callt jedes Event des Publishers im Thread in dem der Publisher es liefert.<br>
+	 * Es werden nie mehr als <code>prefetch</code> Events angefordert, die noch nicht gecallt wurden.<br>
+	 * Das bremst den Publisher nur bei synchronen Events, siehe {@link EventSubscriber}.
+	 * 
+	 * @return Zum Beenden mit {@link EventSubscriber#cancel()}
+	 */
+	public EventSubscriber subscribeTo(Flow.Publisher<? extends Event> upstream, int prefetch) {
+		checkNull(upstream);
+		EventSubscriber subscriber = new EventSubscriber(this, prefetch);
+		upstream.subscribe(subscriber);
+		return subscriber;
+	}
+
+	/**
+	 * Ruft viele Events auf einmal auf.<br>
+	 * <br>
+	 * Die Listener werden nur einmal pro Eventklasse gesucht und dann der Priorität nach<br>
+	 * jeweils für alle Events aufgerufen. Unterbrochene Events und {@link #shouldCallEvent}<br>
+	 * werden weiterhin pro Event beachtet. Methoden mit der {@link Batch} Annotation<br>
+	 * bekommen alle passenden Events einer Klasse als eine Liste.<br>
+	 * <br>
+	 * Asynchrone Events einer Klasse werden zusammen als ein Task auf dem Executor ausgeführt.
+	 * 
+	 * @see Batch
+	 */
+	public void callAll(Collection<? extends Event> events) {
+		checkNull(events);
+		Map<Class<?>, List<Event>> syncEvents = new LinkedHashMap<>();
+		Map<Class<?>, List<Event>> asyncEvents = new LinkedHashMap<>();
+
+		for (Event event : events) {
+			Map<Class<?>, List<Event>> target = event.isAsynchronous() ? asyncEvents : syncEvents;
+			target.computeIfAbsent(event.getClass(), cl -> new ArrayList<>()).add(event);
+		}
+
+		for (List<Event> batch : asyncEvents.values()) {
+			asyncDispatcher.dispatch(batch.get(0), () -> callBatch(batch));
+		}
+		for (List<Event> batch : syncEvents.values()) {
+			callBatch(batch);
+		}
+	}
+
+	/**
+	 * Holt ein Event aus dem Pool, callt es und gibt es danach wieder zurück.<br>
+	 * <br>
+	 * Das Event wird immer synchron im aktuellen Thread gecallt, auch wenn es asynchron ist<br>
+	 * oder Ring Buffer und Partitioning aktiv sind, da es danach sofort wiederverwendet wird.<br>
+	 * Aus dem gleichen Grund wird immer auf die {@link ReadOnly} Methoden gewartet<br>
+	 * und das Event wird nicht an einen {@link #publisher(Class) EventPublisher} weitergegeben.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * String msg = callPooled(chatPool, e -> e.init(name, message),<br>
+	 * &nbsp;&nbsp;&nbsp;&nbsp;e -> e.isCanceled() ? null : e.getMessage());
+	 * </code>
+	 * 
+	 * @param setup  Füllt das Event vor dem callen
+	 * @param result Liest das Ergebnis aus, bevor das Event zurück in den Pool geht
+	 */
+	public <E extends Event, R> R callPooled(EventPool<E> pool, Consumer<? super E> setup, Function<? super E, ? extends R> result) {
+		E event = pool.acquire();
+		try {
+			setup.accept(event);
+			callListeners(event, getTable(event.getClass()).withoutInternal(), null, true);
+			return result.apply(event);
+		} finally {
+			pool.release(event);
 		}
 	}
 
+	/**
+	 * Ruft das Event immer auf dem Executor auf, auch wenn es nicht asynchron ist.<br>
+	 * <br>
+	 * Das Future wird mit dem Event abgeschlossen, sobald alle Listener gelaufen sind<br>
+	 * oder das Event unterbrochen wurde. Sind Listener fehlgeschlagen, wird es mit einer<br>
+	 * {@link ListenerException} abgeschlossen, die alle Fehler enthält.<br>
+	 * Wird das Future abgebrochen, werden keine weiteren Listener mehr aufgerufen.<br>
+	 * Verwirft die {@link EventQueue} der Klasse das Event, schlägt das Future mit einer<br>
+	 * RejectedExecutionException fehl.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * callAsync(new PlayerChatEvent(name, msg))<br>
+	 * &nbsp;&nbsp;&nbsp;&nbsp;.thenAccept(e -> { if (!e.isCanceled()) send(e); });
+	 * </code>
+	 * 
+	 * @see #setAsyncExecutor(Executor)
+	 */
+	public <E extends Event> CompletableFuture<E> callAsync(E event) {
+		checkNull(event);
+		CompletableFuture<E> future = new CompletableFuture<>();
+
+		asyncDispatcher.dispatch(event, () -> {
+			DispatchContext context = new DispatchContext(future);
+			try {
+				callListeners(event, context, true);
+			} catch (Throwable ex) {
+				context.addError(ex);
+			}
+
+			if (context.hasErrors()) {
+				future.completeExceptionally(new ListenerException(event, context.getErrors()));
+			} else {
+				future.complete(event);
+			}
+		}, future::completeExceptionally);
+		return future;
+	}
+
 	/**
 	 * Ruft die Listener für das angegebene Event auf, es sei denn, das Event ist als unterbrochen markiert.
 	 *
 	 * Das Event wird nur dann verarbeitet, wenn {@link #shouldCallEvent(Object, Event)} TRUE zurückgibt
 	 * oder die Event-Methode mit der Annotation {@link CallAlways} versehen ist.
 	 *
+	 * Die Listener kommen aus der vorberechneten {@link DispatchTable} der Eventklasse.
+	 * Wenn {@link #isAllowSuperListeners()} TRUE ist, enthält diese auch die Listener der Superklassen.
+	 * Es wird kein Lock benötigt, da die Tabelle zu einem unveränderlichen Snapshot gehört.
+	 *
+	 * Vorher werden {@link EventHandler#ignoreCanceled()} und {@link EventHandler#filter()} geprüft,
+	 * diese gelten auch für {@link CallAlways} Methoden.
+	 *
+	 * Die {@link ReadOnly} Methoden laufen erst danach und nur wenn das Event weder gecancelt noch unterbrochen ist.
+	 *
 	 * Beispiel:
 	 * <pre>
 	 * {@literal @}CallAlways
@@ -109,60 +458,339 @@ public abstract class EventManager<T> {
 	 * @param event Das Event, dessen Listener aufgerufen werden sollen.
 	 */
 	private void callListeners(Event event) {
-		callListeners(event, event.getClass());
-		if (isAllowSuperListeners()) {
-			callSuperListeners(event);
+		callListeners(event, null, false);
+	}
+
+	/**
+	 * @param context Sammelt die Fehler bei {@link #callAsync(Event)}, sonst <code>null</code>
+	 * @param await   Wartet auf die {@link ReadOnly} Methoden, auch wenn {@link #isAwaitObservers()} FALSE ist
+	 */
+	private void callListeners(Event event, DispatchContext context, boolean await) {
+		callListeners(event, getTable(event.getClass()), context, await);
+	}
+
+	private void callListeners(Event event, DispatchTable<T> table, DispatchContext context, boolean await) {
+		CallObject<T>[] listeners = event.isCanceled() ? table.getCanceledListeners() : table.getListeners();
+		MetricsRecorder recorder = metricsRecorder;
+		if (recorder != null) {
+			recorder.eventDispatched(event.getClass(), table.getListeners().length + table.getObservers().length);
+		}
+		ForkJoinPool pool = stagePool;
+		if (pool != null && table.hasStages()) {
+			callStaged(event, table, context, pool);
+		} else {
+			for (int i = 0; i < listeners.length; i++) {
+				if (event.isInterrupted()) {
+					break;
+				}
+				if (context != null && context.isCancelled()) {
+					break;
+				}
+				callListener(listeners[i], event, context);
+
+				// Wurde das Cancel wieder aufgehoben, geht es in der vollständigen Liste weiter
+				if (listeners != table.getListeners() && !event.isCanceled()) {
+					i = table.toListenerIndex(i);
+					listeners = table.getListeners();
+				}
+			}
+		}
+
+		CallObject<T>[] observers = table.getObservers();
+		if (observers.length > 0 && !event.isInterrupted() && !event.isCanceled()
+				&& (context == null || !context.isCancelled())) {
+			callObservers(event, observers, context, await);
 		}
 	}
 
 	/**
-	 * Ruft die Listener für die übergeordneten Klassen des Events auf, um die Vererbungshierarchie zu berücksichtigen.
-	 *
-	 * Diese Methode wird aufgerufen, wenn {@link #isAllowSuperListeners()} TRUE ist und durchläuft
-	 * die Superklassen des Events, um entsprechende Listener aufzurufen.
-	 *
-	 * @param event Das Event, dessen Listener für die Superklassen aufgerufen werden sollen.
+	 * Ruft die {@link ReadOnly} Methoden auf. Ohne {@link #setObserverExecutor(Executor, boolean)} nacheinander<br>
+	 * im aufrufenden Thread, sonst alle auf dem Executor. Wird gewartet, läuft die erste im aufrufenden Thread.
+	 */
+	private void callObservers(Event event, CallObject<T>[] observers, DispatchContext context, boolean await) {
+		Executor executor = observerExecutor;
+		if (executor == null) {
+			for (CallObject<T> co : observers) {
+				callListener(co, event, context);
+			}
+			return;
+		}
+		if (!await && !awaitObservers) {
+			for (CallObject<T> co : observers) {
+				executor.execute(() -> callListener(co, event, null));
+			}
+			return;
+		}
+
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[observers.length - 1];
+		for (int i = 0; i < futures.length; i++) {
+			CallObject<T> co = observers[i + 1];
+			futures[i] = CompletableFuture.runAsync(() -> callListener(co, event, context), executor);
+		}
+		Throwable failure = null;
+		try {
+			callListener(observers[0], event, context);
+		} catch (RuntimeException | Error ex) {
+			failure = ex;
+		}
+		// Fehler sind nur möglich wenn der ListenerExceptionHandler weiterwirft
+		for (CompletableFuture<?> future : futures) {
+			try {
+				future.join();
+			} catch (CompletionException ex) {
+				failure = addFailure(failure, ex.getCause() != null ? ex.getCause() : ex);
+			} catch (RuntimeException | Error ex) {
+				failure = addFailure(failure, ex);
+			}
+		}
+		rethrow(failure);
+	}
+
+	/**
+	 * Wie {@link #callListeners(Event, DispatchContext, boolean)}, aber die Stufen aus {@link EventHandler#concurrent()} Methoden<br>
+	 * laufen gleichzeitig, die erste Methode jeder Stufe im aufrufenden Thread und die anderen auf dem Pool.<br>
+	 * Interrupt und das abgebrochene Future werden nur zwischen den Stufen geprüft.
 	 */
-	private void callSuperListeners(Event event) {
-		Class<?> superclass = event.getClass().getSuperclass();
-		while (superclass != Object.class) {
-			callListeners(event, superclass);
-			superclass = superclass.getSuperclass();
+	private void callStaged(Event event, DispatchTable<T> table, DispatchContext context, ForkJoinPool pool) {
+		CallObject<T>[] listeners = table.getListeners();
+		int i = 0;
+		while (i < listeners.length && !event.isInterrupted() && (context == null || !context.isCancelled())) {
+			int end = table.getStageEnd(i);
+			if (end - i == 1) {
+				callListener(listeners[i], event, context);
+			} else {
+				ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[end - i - 1];
+				for (int k = 0; k < tasks.length; k++) {
+					CallObject<T> co = listeners[i + 1 + k];
+					tasks[k] = pool.submit(() -> callListener(co, event, context));
+				}
+				Throwable failure = null;
+				try {
+					callListener(listeners[i], event, context);
+				} catch (RuntimeException | Error ex) {
+					failure = ex;
+				}
+				joinAll(tasks, failure);
+			}
+			i = end;
 		}
 	}
 
 	/**
-	 * Ruft die Listener für eine spezifische Klasse des Events auf.
-	 *
-	 * Diese Methode wird sowohl für die eigentliche Eventklasse als auch für deren Superklassen verwendet.
-	 * Sie prüft, ob das Event unterbrochen ist und ob die Listener durch {@link #shouldCallEvent(Object, Event)}
-	 * oder die {@link CallAlways}-Annotation aufgerufen werden sollen.
-	 *
-	 * @param event Das Event, dessen Listener aufgerufen werden sollen.
-	 * @param eventClass Die spezifische Klasse des Events, für die Listener aufgerufen werden.
+	 * Wartet auf alle Tasks, auch wenn einer fehlschlägt (z.B. durch {@link ListenerExceptionHandler#rethrow()}).<br>
+	 * Der erste Fehler wird danach weitergeworfen, die anderen hängen als suppressed daran.
+	 * 
+	 * @param failure Fehler der Methode, die im aufrufenden Thread lief, oder <code>null</code>
 	 */
-	private void callListeners(Event event, Class<?> eventClass) {
-		ArrayList<CallObject<T>> methods = eventTree.get(eventClass);
-		if (methods != null) {
-			for (CallObject<T> co : methods) {
-				if (event.isInterrupted()) {
-					break;
+	private static void joinAll(ForkJoinTask<?>[] tasks, Throwable failure) {
+		for (ForkJoinTask<?> task : tasks) {
+			try {
+				task.join();
+			} catch (RuntimeException | Error ex) {
+				failure = addFailure(failure, ex);
+			}
+		}
+		rethrow(failure);
+	}
+
+	private static Throwable addFailure(Throwable failure, Throwable ex) {
+		if (failure == null) {
+			return ex;
+		}
+		if (failure != ex) {
+			failure.addSuppressed(ex);
+		}
+		return failure;
+	}
+
+	private static void rethrow(Throwable failure) {
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+	}
+
+	/**
+	 * Prüft Filter, {@link CallAlways}, Quarantäne und {@link #shouldCallEvent} und ruft die Methode auf
+	 */
+	private void callListener(CallObject<T> co, Event event, DispatchContext context) {
+		if (!co.accepts(event)) {
+			return;
+		}
+		// CallAlways zuerst, dann muss shouldCallEvent gar nicht erst gefragt werden
+		if (co.isCallAlways() || (!co.isQuarantined() && shouldCallEvent(co.getType(), event))) {
+			invoke(co, event, context);
+		}
+	}
+
+	/**
+	 * Ruft die Listener für mehrere Events der selben Klasse auf.
+	 * 
+	 * @see #callAll(Collection)
+	 */
+	private void callBatch(List<Event> events) {
+		DispatchTable<T> table = getTable(events.get(0).getClass());
+		MetricsRecorder recorder = metricsRecorder;
+		if (recorder != null) {
+			for (Event event : events) {
+				recorder.eventDispatched(event.getClass(), table.getListeners().length + table.getObservers().length);
+			}
+		}
+		callBatch(table.getListeners(), events, false);
+		callBatch(table.getObservers(), events, true);
+	}
+
+	/**
+	 * @param observers TRUE für die {@link ReadOnly} Methoden, die laufen hier nacheinander<br>
+	 *                  und bekommen keine gecancelten Events
+	 */
+	private void callBatch(CallObject<T>[] listeners, List<Event> events, boolean observers) {
+		for (CallObject<T> co : listeners) {
+			if (co.isBatch()) {
+				List<Event> accepted = new ArrayList<>(events.size());
+				for (Event event : events) {
+					if (!event.isInterrupted() && !(observers && event.isCanceled()) && co.accepts(event)
+							&& (co.isCallAlways() || (!co.isQuarantined() && shouldCallEvent(co.getType(), event)))) {
+						accepted.add(event);
+					}
 				}
-				if (shouldCallEvent(co.getType(), event)) {
-					invoke(co, event);
-				} else if (co.isCallAlways()) {
-					invoke(co, event);
+				if (!accepted.isEmpty()) {
+					invokeBatch(co, accepted);
 				}
+			} else {
+				for (Event event : events) {
+					if (event.isInterrupted() || (observers && event.isCanceled()) || !co.accepts(event)) {
+						continue;
+					}
+					if (co.isCallAlways() || (!co.isQuarantined() && shouldCallEvent(co.getType(), event))) {
+						invoke(co, event, null);
+					}
+				}
+			}
+		}
+	}
+
+	private DispatchTable<T> getTable(Class<?> eventClass) {
+		ThreadLocal<LocalDispatchTables<T>> local = localTables;
+		return local != null ? local.get().get(eventClass) : registry.getTable(eventClass);
+	}
+
+	/**
+	 * Fehler bekommt der {@link ListenerExceptionHandler} mit dem ersten Event der Liste
+	 */
+	private void invokeBatch(CallObject<T> co, List<Event> events) {
+		MetricsRecorder recorder = metricsRecorder;
+		Throwable error = null;
+		ListenerWatchdog watchdog = this.watchdog;
+		ListenerWatchdog.Slot slot = watchdog != null ? watchdog.enter(co) : null;
+		long start = recorder != null ? System.nanoTime() : 0;
+		long nanos = 0;
+
+		try {
+			co.getBatchInvoker().invoke(events);
+		} catch (Throwable ex) {
+			error = ex;
+		} finally {
+			if (recorder != null) {
+				nanos = System.nanoTime() - start;
+			}
+			if (slot != null) {
+				watchdog.exit(slot);
 			}
 		}
+
+		if (error != null) {
+			error = unwrap(error);
+		}
+		if (recorder != null) {
+			recorder.listenerInvoked(co, nanos, error != null);
+		}
+		if (error != null) {
+			exceptionHandler.handle(co, events.get(0), error);
+		}
 	}
 
-	private void invoke(CallObject<T> co, Event event) {
+	/**
+	 * Ruft die Event Methode auf. Ist ein {@link MetricsRecorder} gesetzt, wird dabei die Zeit gemessen,<br>
+	 * und zwar nur der Aufruf selbst, ohne Filter, {@link #shouldCallEvent} und Watchdog.<br>
+	 * Ist der {@link ListenerWatchdog} aktiv, wird der Aufruf bei ihm an und abgemeldet.<br>
+	 * Fehler gehen an den {@link DispatchContext} (bei {@link #callAsync(Event)}) oder an den {@link ListenerExceptionHandler},<br>
+	 * erst nachdem Messung und Watchdog abgeschlossen sind, da der Handler den Fehler weiterwerfen darf.
+	 */
+	private void invoke(CallObject<T> co, Event event, DispatchContext context) {
+		MetricsRecorder recorder = metricsRecorder;
+		Throwable error = null;
+		ListenerWatchdog watchdog = this.watchdog;
+		ListenerWatchdog.Slot slot = watchdog != null ? watchdog.enter(co) : null;
+		long start = recorder != null ? System.nanoTime() : 0;
+		long nanos = 0;
+
 		try {
-			co.getMethod().invoke(co.getType(), event);
-		} catch (Exception ex) {
-			ex.printStackTrace();
+			if (co.isBatch()) {
+				co.getBatchInvoker().invoke(Collections.singletonList(event));
+			} else {
+				co.getInvoker().invoke(event);
+			}
+		} catch (Throwable ex) {
+			error = ex;
+		} finally {
+			if (recorder != null) {
+				nanos = System.nanoTime() - start;
+			}
+			if (slot != null) {
+				watchdog.exit(slot);
+			}
 		}
+
+		if (error != null) {
+			error = unwrap(error);
+		}
+		if (recorder != null) {
+			recorder.listenerInvoked(co, nanos, error != null);
+		}
+		if (error != null) {
+			if (context != null) {
+				context.addError(error);
+			} else {
+				exceptionHandler.handle(co, event, error);
+			}
+		}
+	}
+
+	/**
+	 * Für Fehler die nicht beim Aufruf einer Event Methode im aufrufenden Thread passieren,<br>
+	 * z.B. auf den Threads von Ring Buffer, Queues und Coalescer. Der {@link ListenerExceptionHandler}<br>
+	 * bekommt sie ohne Methode. Wirft er weiter, gibt es keinen Aufrufer mehr, dann geht der Fehler<br>
+	 * an den UncaughtExceptionHandler des Threads.
+	 * 
+	 * @param event Das betroffene Event oder <code>null</code>
+	 */
+	void reportError(Event event, Throwable error) {
+		reportError(null, event, error);
+	}
+
+	/**
+	 * Wie {@link #reportError(Event, Throwable)} für Meldungen zu einer Methode, z.B. vom {@link ListenerWatchdog}
+	 */
+	private void reportError(CallObject<?> co, Event event, Throwable error) {
+		try {
+			exceptionHandler.handle(co, event, unwrap(error));
+		} catch (Throwable rethrown) {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, rethrown);
+		}
+	}
+
+	/**
+	 * Der reflektive Aufruf verpackt den eigentlichen Fehler der Event Methode
+	 */
+	private static Throwable unwrap(Throwable ex) {
+		if (ex instanceof InvocationTargetException && ex.getCause() != null) {
+			return ex.getCause();
+		}
+		return ex;
 	}
 
 	/**
@@ -173,26 +801,87 @@ public abstract class EventManager<T> {
 	 * return listener.isEnabled();<br>
 	 * } </code>
 	 * 
+	 * Hängt die Entscheidung nur vom Listener ab und ändert sich selten,<br>
+	 * ist {@link #isListenerEnabled(Object)} mit {@link #setCacheListenerState(boolean)} schneller.
+	 * 
 	 * @see #callListeners(Event)
 	 */
 	public abstract boolean shouldCallEvent(T listener, Event event);
 
+	/**
+	 * Wird nur benutzt wenn {@link #setCacheListenerState(boolean)} aktiv ist.<br>
+	 * Das Ergebnis wird pro Listener gecached, bis {@link #invalidateListenerState(Object)} aufgerufen wird.<br>
+	 * Methoden deaktivierter Listener stehen dann gar nicht mehr in der {@link DispatchTable},<br>
+	 * außer sie haben die {@link CallAlways} Annotation.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * protected boolean isListenerEnabled(Module listener) {<br>
+	 * return listener.isEnabled();<br>
+	 * } </code>
+	 */
+	protected boolean isListenerEnabled(T listener) {
+		return true;
+	}
+
+	/**
+	 * Wenn TRUE wird {@link #isListenerEnabled(Object)} einmal pro Listener abgefragt und gecached.<br>
+	 * {@link #shouldCallEvent(Object, Event)} wird weiterhin für jedes Event aufgerufen,<br>
+	 * z.B. um nach dem Inhalt des Events zu filtern.
+	 */
+	public void setCacheListenerState(boolean cacheListenerState) {
+		registry.setListenerState(cacheListenerState ? this::isListenerEnabled : null);
+		this.cacheListenerState = cacheListenerState;
+	}
+
+	public boolean isCacheListenerState() {
+		return cacheListenerState;
+	}
+
+	/**
+	 * Muss aufgerufen werden, wenn sich {@link #isListenerEnabled(Object)} für den Listener geändert hat
+	 */
+	public void invalidateListenerState(T listener) {
+		checkNull(listener);
+		registry.invalidate(listener);
+	}
+
+	/**
+	 * Fragt {@link #isListenerEnabled(Object)} für alle Listener neu ab
+	 */
+	public void invalidateListenerState() {
+		registry.invalidateAll();
+	}
+
 	/**
 	 * Printet den Inhalt der Variable eventTree in aufgel�ster Darstellung<br>
-	 * Darin sind alle Event Listener gespeichert
+	 * Darin sind alle Event Listener gespeichert<br>
+	 * <br>
+	 * Ist {@link ListenerMetrics} als Recorder gesetzt, stehen unter jeder Methode<br>
+	 * ihre Messwerte und bei jeder Eventklasse wie oft sie gecallt wurde.
 	 */
 	public void printEventTree() {
+		Map<Class<?>, List<CallObject<T>>> eventTree = registry.getEventTree();
+		ListenerMetrics metrics = getListenerMetrics();
 		int counter = eventTree.size();
 		String tab = "    ";
 
 		System.out.println("EventTree: {");
-		for (Class<? extends Event> cl : eventTree.keySet()) {
-			System.out.println(tab + cl.getSimpleName() + ": {");
+		for (Class<?> cl : eventTree.keySet()) {
+			if (metrics != null) {
+				System.out.println(tab + cl.getSimpleName() + " (" + metrics.getDispatchCount(cl) + " calls): {");
+			} else {
+				System.out.println(tab + cl.getSimpleName() + ": {");
+			}
 
 			Iterator<CallObject<T>> values = eventTree.get(cl).iterator();
 
 			while (values.hasNext()) {
-				System.out.println(tab + tab + values.next().toString());
+				CallObject<T> co = values.next();
+				System.out.println(tab + tab + co.toString());
+				if (metrics != null && metrics.getStats(co) != null) {
+					System.out.println(tab + tab + tab + metrics.getStats(co));
+				}
 				if (values.hasNext()) {
 					System.out.println();
 				}
@@ -209,14 +898,336 @@ public abstract class EventManager<T> {
 		System.out.println("}");
 	}
 
+	/**
+	 * Wenn TRUE hält jeder Thread der Events callt (auch die Threads von Executor, Ring Buffer<br>
+	 * und Partitionen) eine eigene Kopie der benutzten {@link DispatchTable}s.<br>
+	 * <br>
+	 * Der gemeinsame Cache wird dann nur beim ersten callen einer Eventklasse und nach<br>
+	 * Änderungen am eventTree gelesen, danach liest der Dispatch nur noch die volatile<br>
+	 * Snapshot Referenz und Daten dieses Threads. Lohnt sich bei vielen Threads, die gleichzeitig<br>
+	 * Events callen, kostet aber etwas Speicher pro Thread.
+	 */
+	public synchronized void setThreadConfinedDispatch(boolean threadConfined) {
+		if (threadConfined && localTables == null) {
+			localTables = ThreadLocal.withInitial(() -> new LocalDispatchTables<>(registry));
+		} else if (!threadConfined) {
+			localTables = null;
+		}
+	}
+
+	public boolean isThreadConfinedDispatch() {
+		return localTables != null;
+	}
+
+	/**
+	 * Pool auf dem {@link EventHandler#concurrent()} Methoden gleichzeitig laufen, <code>null</code> schaltet das ab.<br>
+	 * <br>
+	 * Direkt aufeinander folgende concurrent Methoden mit gleicher Priorität und ohne before/after Beziehung<br>
+	 * bilden eine Stufe. Die Stufe ist fertig, wenn alle ihre Methoden fertig sind, erst dann geht es weiter.<br>
+	 * Lohnt sich bei Events mit vielen unabhängigen Listenern, die jeweils etwas länger brauchen.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>setStagePool(ForkJoinPool.commonPool());</code>
+	 * 
+	 * @see EventHandler#concurrent()
+	 */
+	public void setStagePool(ForkJoinPool stagePool) {
+		this.stagePool = stagePool;
+	}
+
+	public ForkJoinPool getStagePool() {
+		return stagePool;
+	}
+
+	/**
+	 * Lässt die {@link ReadOnly} Methoden eines Events gleichzeitig auf dem Executor laufen, <code>null</code> schaltet das ab.<br>
+	 * <br>
+	 * Ohne Warten kehrt {@link #call(Event)} zurück, sobald die anderen Methoden fertig sind, die ReadOnly Methoden<br>
+	 * dürfen das Event dann nur noch lesen und sehen spätere Änderungen des Aufrufers eventuell nicht.<br>
+	 * {@link #callAsync(Event)} und {@link #callPooled} warten immer, damit Fehler im Future landen<br>
+	 * und das Event nicht zu früh zurück in den Pool geht.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>setObserverExecutor(ForkJoinPool.commonPool(), false);</code><br>
+	 * Ab Java 21 eignet sich auch <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+	 * 
+	 * @param awaitObservers Wenn TRUE wartet der aufrufende Thread, bis alle ReadOnly Methoden fertig sind
+	 */
+	public void setObserverExecutor(Executor observerExecutor, boolean awaitObservers) {
+		this.observerExecutor = observerExecutor;
+		this.awaitObservers = awaitObservers;
+	}
+
+	public Executor getObserverExecutor() {
+		return observerExecutor;
+	}
+
+	public boolean isAwaitObservers() {
+		return awaitObservers;
+	}
+
+	/**
+	 * Setzt was mit Fehlern aus Event Methoden passiert.<br>
+	 * Standard ist {@link ListenerExceptionHandler#log()}, das gleiche Fehler nur einmal komplett ausgibt.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>
+	 * setExceptionHandler(ListenerExceptionHandler.circuitBreaker(10, ListenerExceptionHandler.log()));
+	 * </code>
+	 */
+	public void setExceptionHandler(ListenerExceptionHandler exceptionHandler) {
+		checkNull(exceptionHandler);
+		this.exceptionHandler = exceptionHandler;
+	}
+
+	public ListenerExceptionHandler getExceptionHandler() {
+		return exceptionHandler;
+	}
+
+	/**
+	 * Startet den {@link ListenerWatchdog}, der Event Methoden meldet die länger als ihr Budget brauchen.<br>
+	 * Ein eigenes Budget kann mit {@link EventHandler#timeBudget()} gesetzt werden.<br>
+	 * Ein schon laufender Watchdog wird ersetzt.<br>
+	 * Überschreitungen und Quarantänen gehen als {@link SlowListenerException} und {@link ListenerQuarantinedException}<br>
+	 * an den {@link ListenerExceptionHandler}, ohne Event.
+	 * 
+	 * @param defaultBudget   Standardbudget in Millisekunden, 0 überwacht nur Methoden mit eigenem Budget
+	 * @param quarantineAfter Nach wie vielen Überschreitungen eine Methode nicht mehr aufgerufen wird, 0 für nie
+	 * @see #releaseQuarantine(Object)
+	 */
+	public synchronized void enableWatchdog(long defaultBudget, int quarantineAfter) {
+		ListenerWatchdog old = watchdog;
+		watchdog = new ListenerWatchdog(defaultBudget, quarantineAfter, (co, error) -> reportError(co, null, error));
+		if (old != null) {
+			old.shutdown();
+		}
+	}
+
+	public synchronized void disableWatchdog() {
+		if (watchdog != null) {
+			watchdog.shutdown();
+			watchdog = null;
+		}
+	}
+
+	public boolean isWatchdogEnabled() {
+		return watchdog != null;
+	}
+
+	/**
+	 * Gibt alle Event Methoden zurück, die gerade in Quarantäne sind.<br>
+	 * {@link CallObject#isInternal() Interne} CallObjects wie die eines {@link EventPublisher} sind nicht dabei.
+	 */
+	public List<CallObject<T>> getQuarantined() {
+		List<CallObject<T>> quarantined = new ArrayList<>();
+		for (List<CallObject<T>> list : registry.getEventTree().values()) {
+			for (CallObject<T> co : list) {
+				if (co.isQuarantined() && !co.isInternal()) {
+					quarantined.add(co);
+				}
+			}
+		}
+		return quarantined;
+	}
+
+	/**
+	 * Hebt die Quarantäne für alle Event Methoden des Listeners auf
+	 * 
+	 * @param listener Das Object oder die Klasse die bei {@link #registerEvents(Object...)} angegeben wurde
+	 */
+	public void releaseQuarantine(T listener) {
+		checkNull(listener);
+		for (CallObject<T> co : getQuarantined()) {
+			if (co.getType() == listener) {
+				co.release();
+			}
+		}
+	}
+
+	/**
+	 * Hebt die Quarantäne für alle Event Methoden auf
+	 */
+	public void releaseQuarantine() {
+		for (CallObject<T> co : getQuarantined()) {
+			co.release();
+		}
+	}
+
+	private ListenerMetrics getListenerMetrics() {
+		MetricsRecorder recorder = metricsRecorder;
+		while (recorder instanceof JfrMetricsRecorder) {
+			recorder = ((JfrMetricsRecorder) recorder).getDelegate();
+		}
+		return recorder instanceof ListenerMetrics ? (ListenerMetrics) recorder : null;
+	}
+
+	/**
+	 * Setzt den Recorder, der für jede aufgerufene Event Methode die Laufzeit misst.<br>
+	 * Mit null (Standard) wird nicht gemessen und das Dispatchen kostet nichts extra.<br>
+	 * Für Auswertungen im Code eignet sich {@link ListenerMetrics}, für Java Flight Recorder<br>
+	 * {@link JfrMetricsRecorder}.
+	 */
+	public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	public MetricsRecorder getMetricsRecorder() {
+		return metricsRecorder;
+	}
+
 	private void checkNull(Object instances) {
 		if (instances == null) {
 			throw new IllegalArgumentException("Argument cannot be Null!");
 		}
 	}
 
+	/**
+	 * Setzt den Executor für asynchrone Events.<br>
+	 * Standard ist ab Java 21 ein Virtual Thread pro Event, sonst ein<br>
+	 * begrenzter Thread Pool mit einem Thread pro Prozessorkern.
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		checkNull(executor);
+		asyncDispatcher.setExecutor(executor);
+	}
+
+	/**
+	 * Setzt einen eigenen Executor nur für die angegebene Eventklasse.<br>
+	 * Mit <code>null</code> wird wieder der normale Executor benutzt.
+	 */
+	public void setAsyncExecutor(Class<? extends Event> eventClass, Executor executor) {
+		checkNull(eventClass);
+		asyncDispatcher.setExecutor(eventClass, executor);
+	}
+
+	/**
+	 * Begrenzt wie viele asynchrone Events der Klasse gleichzeitig warten dürfen.<br>
+	 * Ist die Queue voll, entscheidet die {@link OverflowPolicy} was mit neuen Events passiert.<br>
+	 * Tiefe und verworfene Events gibt es über {@link AsyncDispatcher#getQueue(Class)}.
+	 * 
+	 * @see #setDefaultAsyncQueue(int, OverflowPolicy)
+	 */
+	public void setAsyncQueue(Class<? extends Event> eventClass, int capacity, OverflowPolicy policy) {
+		setAsyncQueue(eventClass, capacity, policy, null);
+	}
+
+	/**
+	 * @param onReject Bekommt bei {@link OverflowPolicy#Reject} die abgelehnten Events,<br>
+	 *                 ohne Callback wirft {@link #call(Event)} eine RejectedExecutionException
+	 * @see #setAsyncQueue(Class, int, OverflowPolicy)
+	 */
+	public void setAsyncQueue(Class<? extends Event> eventClass, int capacity, OverflowPolicy policy, Consumer<Event> onReject) {
+		checkNull(eventClass);
+		asyncDispatcher.setQueue(eventClass, capacity, policy, onReject);
+	}
+
+	/**
+	 * Gibt jeder Eventklasse ohne eigene Queue eine eigene begrenzte Queue mit diesen Einstellungen.<br>
+	 * Dadurch kann eine Flut von einer Eventklasse die anderen nicht aushungern.<br>
+	 * Mit <code>policy == null</code> wird das wieder abgeschaltet.
+	 */
+	public void setDefaultAsyncQueue(int capacity, OverflowPolicy policy) {
+		asyncDispatcher.setDefaultQueue(capacity, policy, null);
+	}
+
+	/**
+	 * Schaltet den Ring Buffer Modus ein.<br>
+	 * <br>
+	 * {@link #call(Event)} schreibt das Event dann nur noch in einen Ring und kehrt sofort<br>
+	 * zurück, die Listener laufen auf <code>consumers</code> eigenen Threads. Die Events eines<br>
+	 * Threads werden immer in der Reihenfolge abgearbeitet in der sie gecallt wurden.<br>
+	 * <br>
+	 * Achtung: Nach dem call steht noch nicht fest ob das Event gecanceled wurde.<br>
+	 * <br>
+	 * Callt ein Listener auf einem Consumer Thread selbst ein Event und dessen Ring ist voll,<br>
+	 * wird es direkt auf diesem Thread abgearbeitet, statt auf einen Platz zu warten den nur<br>
+	 * dieser Thread freimachen könnte. Die Reihenfolge gegenüber seinen früheren Events ist dann nicht garantiert.
+	 * 
+	 * @param bufferSize Plätze pro Ring, muss eine Zweierpotenz sein (z.B. 1024)
+	 * @param consumers Anzahl der Consumer Threads
+	 * @param waitStrategy Wie die Threads bei leerem oder vollem Ring warten
+	 */
+	public synchronized void enableRingBuffer(int bufferSize, int consumers, WaitStrategy waitStrategy) {
+		checkNull(waitStrategy);
+		if (ringBuffer != null) {
+			throw new IllegalStateException("Der Ring Buffer ist bereits aktiv");
+		}
+		ringBuffer = new RingBufferDispatcher(bufferSize, consumers, waitStrategy, this::callListeners, this::reportError);
+	}
+
+	/**
+	 * Schaltet den Ring Buffer wieder aus, alle bereits geschriebenen Events werden noch abgearbeitet
+	 */
+	public synchronized void disableRingBuffer() throws InterruptedException {
+		RingBufferDispatcher ring = ringBuffer;
+		if (ring != null) {
+			ringBuffer = null;
+			ring.shutdown();
+		}
+	}
+
+	public boolean isRingBufferEnabled() {
+		return ringBuffer != null;
+	}
+
+	/**
+	 * Schaltet die Partitionierung ein.<br>
+	 * <br>
+	 * Events die {@link Partitioned} implementieren werden anhand ihres Keys auf<br>
+	 * <code>lanes</code> Threads verteilt. Events mit dem selben Key laufen immer<br>
+	 * nacheinander und in Reihenfolge, verschiedene Keys parallel.<br>
+	 * Die Priorität der Listener gilt innerhalb eines Events wie gewohnt.<br>
+	 * <br>
+	 * Die Queue jeder Lane ist unbegrenzt, ein zu langsamer Listener lässt sie also beliebig wachsen.<br>
+	 * Mit {@link #enablePartitioning(int, int)} wartet der aufrufende Thread stattdessen.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>enablePartitioning(Runtime.getRuntime().availableProcessors());</code>
+	 */
+	public void enablePartitioning(int lanes) {
+		enablePartitioning(lanes, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Wie {@link #enablePartitioning(int)}, aber pro Lane warten höchstens <code>capacity</code> Events.<br>
+	 * Ist die Lane voll, wartet der Thread der das Event callt. Wird er dabei unterbrochen, wird das Event<br>
+	 * verworfen und an den {@link ListenerExceptionHandler} gemeldet, damit die Reihenfolge seines Keys erhalten bleibt.
+	 * 
+	 * @see PartitionedDispatcher
+	 */
+	public synchronized void enablePartitioning(int lanes, int capacity) {
+		if (partitions != null) {
+			throw new IllegalStateException("Die Partitionierung ist bereits aktiv");
+		}
+		partitions = new PartitionedDispatcher(lanes, capacity, this::reportError);
+	}
+
+	/**
+	 * Schaltet die Partitionierung wieder aus, wartende Events werden noch abgearbeitet.<br>
+	 * Events die gleichzeitig gecallt werden, laufen ab dann wieder ohne Lane, für diese<br>
+	 * ist die Reihenfolge zu den noch wartenden Events ihres Keys nicht garantiert.
+	 */
+	public synchronized void disablePartitioning() throws InterruptedException {
+		PartitionedDispatcher lanes = partitions;
+		if (lanes != null) {
+			partitions = null;
+			lanes.shutdown();
+		}
+	}
+
+	public boolean isPartitioningEnabled() {
+		return partitions != null;
+	}
+
+	/**
+	 * Enthält die Anzahl wartender und abgelehnter asynchroner Events
+	 */
+	public AsyncDispatcher getAsyncDispatcher() {
+		return asyncDispatcher;
+	}
+
 	public boolean isAllowSuperListeners() {
-		return allowSuperListeners;
+		return registry.isAllowSuperListeners();
 	}
 
 	/**
@@ -232,6 +1243,6 @@ public abstract class EventManager<T> {
 	 * @param allowSuperListeners TRUE, wenn Listener für generische Events aufgerufen werden sollen, andernfalls FALSE.
 	 */
 	public void setAllowSuperListeners(boolean allowSuperListeners) {
-		this.allowSuperListeners = allowSuperListeners;
+		registry.setAllowSuperListeners(allowSuperListeners);
 	}
 }
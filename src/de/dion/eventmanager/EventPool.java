@@ -0,0 +1,176 @@
+package de.dion.eventmanager;
+
+import java.lang.ref.Cleaner;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Pool für Events die sehr oft gecallt werden, damit nicht für jeden Aufruf ein neues Object entsteht.<br>
+ * <br>
+ * Jeder Thread hat seinen eigenen Stapel an freien Events, {@link #acquire()} und {@link #release(Event)}<br>
+ * brauchen deshalb keine Synchronisation und allokieren nach dem Aufwärmen nichts mehr.<br>
+ * Beim Zurückgeben wird {@link Event#reset()} aufgerufen.<br>
+ * <br>
+ * Beispiel:<br>
+ * <code>
+ * PlayerChatEvent e = pool.acquire().init(name, message);<br>
+ * try {<br>
+ * &nbsp;&nbsp;eventManager.call(e);<br>
+ * } finally {<br>
+ * &nbsp;&nbsp;pool.release(e);<br>
+ * }
+ * </code><br>
+ * <br>
+ * Ein Event darf nach dem Zurückgeben nicht mehr benutzt werden. Asynchrone Events dürfen erst<br>
+ * zurückgegeben werden, wenn alle Listener gelaufen sind, einfacher ist dafür {@link EventManager#callPooled}.<br>
+ * Mit {@link #setLeakDetection(boolean)} wird gemeldet, wenn ein Event nie zurückgegeben wurde.
+ *
+ * @param <E> Die Eventklasse
+ */
+public class EventPool<E extends Event> {
+
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private final Supplier<E> factory;
+	private final int maxPerThread;
+	private final ThreadLocal<Stack> local = ThreadLocal.withInitial(this::createStack);
+	private volatile boolean leakDetection = Boolean.getBoolean("de.dion.eventmanager.pool.debug");
+	private final Map<Event, Tracker> tracked = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Pool mit höchstens 64 freien Events pro Thread
+	 */
+	public EventPool(Supplier<E> factory) {
+		this(factory, 64);
+	}
+
+	/**
+	 * @param factory      Erzeugt neue Events, wenn der Pool leer ist
+	 * @param maxPerThread Wie viele freie Events ein Thread höchstens aufhebt
+	 */
+	public EventPool(Supplier<E> factory, int maxPerThread) {
+		if (factory == null) {
+			throw new IllegalArgumentException("Argument cannot be Null!");
+		}
+		if (maxPerThread < 1) {
+			throw new IllegalArgumentException("Der Pool muss mindestens ein Event aufheben können");
+		}
+		this.factory = factory;
+		this.maxPerThread = maxPerThread;
+	}
+
+	/**
+	 * Gibt ein freies Event zurück oder erzeugt ein neues
+	 */
+	public E acquire() {
+		E event = local.get().pop();
+		if (event == null) {
+			event = factory.get();
+		}
+		if (leakDetection) {
+			track(event);
+		}
+		return event;
+	}
+
+	/**
+	 * Setzt das Event mit {@link Event#reset()} zurück und legt es in den Pool des aktuellen Threads.<br>
+	 * Ist der Pool voll, wird das Event dem Garbage Collector überlassen.
+	 */
+	public void release(E event) {
+		if (event == null) {
+			throw new IllegalArgumentException("Argument cannot be Null!");
+		}
+		if (leakDetection) {
+			untrack(event);
+		}
+		event.reset();
+		local.get().push(event);
+	}
+
+	/**
+	 * Im Debug Modus wird für jedes Event die Stelle gemerkt an der es geholt wurde.<br>
+	 * Wird es vom Garbage Collector entfernt ohne zurückgegeben worden zu sein, wird diese Stelle ausgegeben.<br>
+	 * Doppeltes Zurückgeben führt zu einer IllegalStateException.<br>
+	 * <br>
+	 * Standard ist die System Property <code>de.dion.eventmanager.pool.debug</code>
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	public boolean isLeakDetection() {
+		return leakDetection;
+	}
+
+	private void track(E event) {
+		Tracker tracker = new Tracker(event.getClass().getSimpleName());
+		tracker.cleanable = CLEANER.register(event, tracker);
+		tracked.put(event, tracker);
+	}
+
+	private void untrack(E event) {
+		Tracker tracker = tracked.remove(event);
+		if (tracker == null) {
+			throw new IllegalStateException(event.getClass().getSimpleName()
+					+ " wurde nicht aus diesem Pool geholt oder schon zurückgegeben");
+		}
+		tracker.released = true;
+		tracker.cleanable.clean();
+	}
+
+	private Stack createStack() {
+		return new Stack(maxPerThread);
+	}
+
+	private final class Stack {
+
+		private final Object[] events;
+		private int size;
+
+		Stack(int capacity) {
+			events = new Object[capacity];
+		}
+
+		@SuppressWarnings("unchecked")
+		E pop() {
+			if (size == 0) {
+				return null;
+			}
+			E event = (E) events[--size];
+			events[size] = null;
+			return event;
+		}
+
+		void push(E event) {
+			if (size < events.length) {
+				events[size++] = event;
+			}
+		}
+	}
+
+	/**
+	 * Darf das Event selbst nicht referenzieren, sonst wird es nie eingesammelt
+	 */
+	private static final class Tracker implements Runnable {
+
+		private final Throwable acquiredAt;
+		private volatile boolean released;
+		private Cleaner.Cleanable cleanable;
+
+		Tracker(String eventName) {
+			acquiredAt = new Throwable(eventName + " wurde nie an den EventPool zurückgegeben, geholt bei:");
+		}
+
+		@Override
+		public void run() {
+			if (!released) {
+				acquiredAt.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package de.dion.eventmanager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Stellt die Events einer Klasse als {@link Flow.Publisher} bereit.<br>
+ * <br>
+ * Intern steht im eventTree eine {@link CallAlways} Methode mit niedrigster Priorität,<br>
+ * die jedes Event an einen {@link SubmissionPublisher} weitergibt. Jeder Subscriber hat einen<br>
+ * eigenen Puffer und bekommt nur so viele Events wie er mit <code>request(n)</code> anfordert.<br>
+ * Ist sein Puffer voll, wird das Event für ihn verworfen, der Thread der das Event callt<br>
+ * wartet also nie auf einen Subscriber.<br>
+ * <br>
+ * Die Subscriber bekommen das selbe Event Object, das auch die Listener bekommen haben.<br>
+ * Events aus einem {@link EventPool} werden deshalb nicht veröffentlicht, {@link EventManager#callPooled}<br>
+ * überspringt die interne Methode.
+ *
+ * @see EventManager#publisher(Class)
+ */
+public class EventPublisher<E extends Event> implements Flow.Publisher<E>, AutoCloseable {
+
+	private static final AtomicLong IDS = new AtomicLong();
+
+	private final Class<E> eventClass;
+	private final SubmissionPublisher<E> publisher;
+	private final LongAdder dropped = new LongAdder();
+	private final BiPredicate<Flow.Subscriber<? super E>, E> onDrop = (subscriber, event) -> {
+		dropped.increment();
+		return false;
+	};
+	private Subscription subscription;
+
+	/**
+	 * @param executor   Auf dem Executor laufen die Subscriber
+	 * @param bufferSize Wie viele Events pro Subscriber gepuffert werden, bevor sie verworfen werden
+	 */
+	public EventPublisher(Class<E> eventClass, Executor executor, int bufferSize) {
+		this.eventClass = eventClass;
+		this.publisher = new SubmissionPublisher<>(executor, bufferSize);
+	}
+
+	/**
+	 * Erzeugt das CallObject, das im eventTree für diesen Publisher steht.<br>
+	 * Der Publisher ist kein T, das CallObject ist deshalb {@link CallObject#isInternal() intern}<br>
+	 * und sein Typ wird nur per Identität verglichen, nie als T benutzt.
+	 */
+	<T> CallObject<T> createCallObject() {
+		CallObject<T> co = new CallObject<>();
+		co.setName("onNext#" + IDS.incrementAndGet());
+		co.setDeclaringClass(EventPublisher.class);
+		co.setEventClass(eventClass);
+		co.setPriority(Priority.Lowest);
+		co.setCallAlways(true);
+		co.setInternal(true);
+		co.setInvoker(this::publish);
+		@SuppressWarnings("unchecked")
+		T type = (T) this;
+		co.setType(type);
+		return co;
+	}
+
+	void setSubscription(Subscription subscription) {
+		this.subscription = subscription;
+	}
+
+	private void publish(Event event) {
+		publisher.offer(eventClass.cast(event), onDrop);
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super E> subscriber) {
+		publisher.subscribe(subscriber);
+	}
+
+	public Class<E> getEventClass() {
+		return eventClass;
+	}
+
+	public int getSubscriberCount() {
+		return publisher.getNumberOfSubscribers();
+	}
+
+	/**
+	 * Wie viele Events insgesamt verworfen wurden, weil der Puffer eines Subscribers voll war
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Höchste Anzahl an Events, die gerade bei einem Subscriber auf <code>request(n)</code> warten
+	 */
+	public int getLag() {
+		return publisher.estimateMaximumLag();
+	}
+
+	/**
+	 * Meldet den Publisher vom EventManager ab und ruft <code>onComplete</code> bei allen Subscribern auf
+	 */
+	@Override
+	public void close() {
+		if (subscription != null) {
+			subscription.unregister();
+		}
+		publisher.close();
+	}
+}
@@ -0,0 +1,233 @@
+package de.dion.eventmanager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Begrenzte Warteschlange für die asynchronen Events einer Eventklasse.<br>
+ * <br>
+ * Die Events werden von höchstens <code>parallelism</code> Tasks auf dem Executor abgearbeitet.<br>
+ * Ein Task gibt nach {@value #DRAIN_BATCH} Events seinen Thread wieder ab, damit eine Flut<br>
+ * von einer Eventklasse die Queues der anderen Klassen nicht aushungert.<br>
+ * Ist die Queue voll, entscheidet die {@link OverflowPolicy}.
+ * 
+ * @see EventManager#setAsyncQueue(Class, int, OverflowPolicy)
+ */
+public class EventQueue {
+
+	private static final int DRAIN_BATCH = 64;
+
+	private final int capacity;
+	private final OverflowPolicy policy;
+	private final Consumer<Event> onReject;
+	private final int parallelism;
+	private final ArrayBlockingQueue<Entry> queue;
+	private boolean defaultQueue;
+
+	private final AtomicInteger drainers = new AtomicInteger();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder callerRuns = new LongAdder();
+
+	/**
+	 * @param onReject Wird bei {@link OverflowPolicy#Reject} mit dem abgelehnten Event aufgerufen, darf <code>null</code> sein
+	 */
+	public EventQueue(int capacity, OverflowPolicy policy, Consumer<Event> onReject) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Die Queue braucht mindestens einen Platz");
+		}
+		if (policy == null) {
+			throw new IllegalArgumentException("Argument cannot be Null!");
+		}
+		this.capacity = capacity;
+		this.policy = policy;
+		this.onReject = onReject;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * Reiht das Event ein und startet bei Bedarf einen weiteren Task auf dem Executor
+	 * 
+	 * @param onError Bekommt Fehler die beim Abarbeiten aus dem Task fliegen
+	 * @param executors Gibt den Executor für die Eventklasse zurück
+	 */
+	void offer(Event event, Runnable task, Consumer<RejectedExecutionException> onDropped,
+			BiConsumer<Event, Throwable> onError, Function<Class<? extends Event>, Executor> executors) {
+		Entry entry = new Entry(event, task, onDropped, onError);
+		if (!queue.offer(entry) && !overflow(entry)) {
+			return;
+		}
+		startDrainer(executors.apply(event.getClass()));
+	}
+
+	/**
+	 * @return TRUE wenn das Event doch noch eingereiht wurde
+	 */
+	private boolean overflow(Entry entry) {
+		switch (policy) {
+		case Block:
+			try {
+				queue.put(entry);
+				return true;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				dropped.increment();
+				notifyDropped(entry);
+				return false;
+			}
+		case DropOldest:
+			while (!queue.offer(entry)) {
+				Entry oldest = queue.poll();
+				if (oldest != null) {
+					dropped.increment();
+					notifyDropped(oldest);
+				}
+			}
+			return true;
+		case DropNewest:
+			dropped.increment();
+			notifyDropped(entry);
+			return false;
+		case CallerRuns:
+			callerRuns.increment();
+			entry.task.run();
+			return false;
+		case Reject:
+		default:
+			rejected.increment();
+			if (onReject == null && entry.onDropped == null) {
+				throw new RejectedExecutionException(
+						"Async Queue für " + entry.event.getClass().getSimpleName() + " ist voll (" + capacity + ")");
+			}
+			if (onReject != null) {
+				onReject.accept(entry.event);
+			}
+			notifyDropped(entry);
+			return false;
+		}
+	}
+
+	private void notifyDropped(Entry entry) {
+		if (entry.onDropped != null) {
+			entry.onDropped.accept(new RejectedExecutionException(
+					entry.event.getClass().getSimpleName() + " wurde von der Async Queue verworfen (" + policy + ")"));
+		}
+	}
+
+	private void startDrainer(Executor executor) {
+		int current;
+		while ((current = drainers.get()) < parallelism) {
+			if (drainers.compareAndSet(current, current + 1)) {
+				submit(executor);
+				return;
+			}
+		}
+	}
+
+	private void submit(Executor executor) {
+		try {
+			executor.execute(() -> drain(executor));
+		} catch (RejectedExecutionException ex) {
+			// Executor nimmt nichts mehr an, die Events laufen dann im aufrufenden Thread
+			drain(null);
+		}
+	}
+
+	private void drain(Executor executor) {
+		for (int i = 0; executor == null || i < DRAIN_BATCH; i++) {
+			Entry entry = queue.poll();
+			if (entry == null) {
+				drainers.decrementAndGet();
+				// Zwischen poll und decrement kann ein Event dazugekommen sein, das sonst keiner abholt
+				if (!queue.isEmpty() && executor != null) {
+					startDrainer(executor);
+				}
+				return;
+			}
+			try {
+				entry.task.run();
+			} catch (Throwable ex) {
+				entry.onError.accept(entry.event, ex);
+			}
+		}
+		// Thread abgeben und hinten beim Executor wieder anstellen
+		submit(executor);
+	}
+
+	/**
+	 * TRUE wenn die Queue aus {@link AsyncDispatcher#setDefaultQueue} stammt
+	 */
+	boolean isDefault() {
+		return defaultQueue;
+	}
+
+	void setDefault(boolean defaultQueue) {
+		this.defaultQueue = defaultQueue;
+	}
+
+	/**
+	 * Anzahl der Events die gerade warten
+	 */
+	public int getDepth() {
+		return queue.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public OverflowPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Verworfene Events bei {@link OverflowPolicy#DropOldest}, {@link OverflowPolicy#DropNewest} und unterbrochenem Block
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Abgelehnte Events bei {@link OverflowPolicy#Reject}
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Events die bei {@link OverflowPolicy#CallerRuns} im aufrufenden Thread gelaufen sind
+	 */
+	public long getCallerRuns() {
+		return callerRuns.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "EventQueue(" + getDepth() + "/" + capacity + ", " + policy + ", dropped=" + getDropped() + ", rejected="
+				+ getRejected() + ", callerRuns=" + getCallerRuns() + ")";
+	}
+
+	private static final class Entry {
+
+		final Event event;
+		final Runnable task;
+		final Consumer<RejectedExecutionException> onDropped;
+		final BiConsumer<Event, Throwable> onError;
+
+		Entry(Event event, Runnable task, Consumer<RejectedExecutionException> onDropped, BiConsumer<Event, Throwable> onError) {
+			this.event = event;
+			this.task = task;
+			this.onDropped = onDropped;
+			this.onError = onError;
+		}
+	}
+}
@@ -0,0 +1,552 @@
+package de.dion.eventmanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Speichert den eventTree als unveränderlichen Snapshot (Copy on Write).<br>
+ * <br>
+ * Lesen (also callen) braucht keinen Lock, es wird nur die volatile Referenz<br>
+ * auf den aktuellen {@link DispatchCache} gelesen. Schreibzugriffe arbeiten auf<br>
+ * einer Kopie und veröffentlichen diese danach auf einmal. Kopiert werden nur die Map<br>
+ * der Eventklassen und die Listen der Klassen die sich ändern, nicht der ganze eventTree.<br>
+ * Schlägt eine Änderung fehl, wird nichts veröffentlicht und die Rückwärts Indizes<br>
+ * werden aus dem letzten Snapshot wiederhergestellt.<br>
+ * <br>
+ * Innerhalb von {@link #batch(Runnable)} werden alle Änderungen gesammelt<br>
+ * und erst am Ende einmal veröffentlicht.<br>
+ * <br>
+ * Neue CallObjects werden direkt an die Stelle ihrer Priorität eingefügt, die Listen<br>
+ * sind also immer sortiert. Über die Rückwärts Indizes (Listener bzw. Listener Klasse<br>
+ * zu CallObjects) findet das Abmelden die betroffenen Methoden ohne den eventTree zu durchsuchen.<br>
+ * <br>
+ * Ist ein Listener Status gesetzt, wird er einmal pro Listener ausgewertet und die deaktivierten<br>
+ * Listener werden mit dem Snapshot veröffentlicht, bis {@link #invalidate(Object)} aufgerufen wird.<br>
+ * <br>
+ * Jeder neue Snapshot beginnt mit einem leeren {@link DispatchCache}, die Tabellen werden beim nächsten<br>
+ * callen einer Eventklasse neu gebaut. Das kostet pro Eventklasse einmal so viel wie sie Listener hat.
+ */
+public class EventRegistry<T> {
+
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private volatile DispatchCache<T> snapshot;
+
+	/** Arbeitskopie, nur gesetzt während der writeLock gehalten wird */
+	private HashMap<Class<?>, List<CallObject<T>>> working;
+	private boolean allowSuperListeners;
+
+	// Die folgenden Indizes werden nur unter dem writeLock benutzt
+	private final Map<Object, List<CallObject<T>>> byListener = new IdentityHashMap<>();
+	private final Map<Class<?>, List<CallObject<T>>> byListenerClass = new HashMap<>();
+	private final Map<Key, CallObject<T>> byKey = new HashMap<>();
+	private final Set<Object> disabledListeners = Collections.newSetFromMap(new IdentityHashMap<>());
+	private Predicate<? super T> listenerState;
+	private Predicate<Class<?>> coalescing;
+	private Consumer<List<CallObject<?>>> onRemoved;
+	/** Abgemeldete CallObjects, die nach dem Veröffentlichen an onRemoved gehen */
+	private final List<CallObject<?>> pendingRemoved = new ArrayList<>();
+	/** Anzahl der registrierten Methoden mit before/after, nur dann muss auf Zyklen geprüft werden */
+	private int orderedMethods;
+	/** Konkrete Eventklassen die schon gecallt wurden, schwach referenziert damit Plugins entladen werden können */
+	private final Set<Class<?>> compiledClasses = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	public EventRegistry() {
+		snapshot = new DispatchCache<>(Collections.emptyMap(), false, Collections.emptySet(), compiledClasses, null);
+	}
+
+	/**
+	 * Gibt die vorberechnete {@link DispatchTable} für die Eventklasse zurück
+	 */
+	public DispatchTable<T> getTable(Class<?> eventClass) {
+		return snapshot.get(eventClass);
+	}
+
+	/**
+	 * Der aktuell veröffentlichte Snapshot, ändert sich bei jeder Änderung am eventTree
+	 */
+	DispatchCache<T> getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Der aktuell veröffentlichte, unveränderliche eventTree
+	 */
+	public Map<Class<?>, List<CallObject<T>>> getEventTree() {
+		return snapshot.getEventTree();
+	}
+
+	public boolean isAllowSuperListeners() {
+		return snapshot.isAllowSuperListeners();
+	}
+
+	public void setAllowSuperListeners(boolean allowSuperListeners) {
+		update(tree -> this.allowSuperListeners = allowSuperListeners);
+	}
+
+	/**
+	 * Setzt die Abfrage ob Events einer Klasse zusammengefasst werden, siehe {@link DispatchTable#isCoalesced()}.<br>
+	 * Nach jeder Änderung der Regeln erneut aufrufen, damit die Tabellen neu gebaut werden.
+	 */
+	public void setCoalescing(Predicate<Class<?>> coalescing) {
+		update(tree -> this.coalescing = coalescing);
+	}
+
+	/**
+	 * Wird mit den CallObjects aufgerufen, die abgemeldet wurden (auch bei {@link #clear()}),<br>
+	 * erst nachdem der neue Snapshot veröffentlicht wurde. Läuft unter dem Schreib Lock, sollte also schnell sein.
+	 */
+	public void setOnRemoved(Consumer<List<CallObject<?>>> onRemoved) {
+		update(tree -> this.onRemoved = onRemoved);
+	}
+
+	/**
+	 * Setzt die Abfrage ob ein Listener aktiviert ist.<br>
+	 * Mit <code>null</code> gelten wieder alle Listener als aktiviert.
+	 */
+	public void setListenerState(Predicate<? super T> listenerState) {
+		update(tree -> {
+			this.listenerState = listenerState;
+			disabledListeners.clear();
+			if (listenerState != null) {
+				for (Object listener : byListener.keySet()) {
+					updateState(listener);
+				}
+			}
+		});
+	}
+
+	/**
+	 * TRUE wenn der Listener laut dem gecachten Status deaktiviert ist
+	 */
+	public boolean isDisabled(Object listener) {
+		return snapshot.isDisabled(listener);
+	}
+
+	/**
+	 * Fragt den Status des Listeners neu ab und baut die Tabellen neu, falls er sich geändert hat
+	 */
+	public void invalidate(Object listener) {
+		writeLock.lock();
+		try {
+			if (listenerState == null || !hasFilterableMethods(byListener.get(listener))) {
+				return;
+			}
+			if (queryDisabled(listener) != disabledListeners.contains(listener)) {
+				update(tree -> updateState(listener));
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Fragt den Status aller Listener neu ab
+	 */
+	public void invalidateAll() {
+		update(tree -> {
+			if (listenerState != null) {
+				for (Object listener : byListener.keySet()) {
+					updateState(listener);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Scannt die Listener und trägt ihre Event Methoden ein
+	 * 
+	 * @return Handle mit dem genau diese Methoden wieder abgemeldet werden können
+	 * @throws IllegalStateException wenn {@link EventHandler#before()} und {@link EventHandler#after()}<br>
+	 *                               einen Zyklus ergeben, es wird dann nichts registriert
+	 */
+	public Subscription register(Collection<? extends T> listeners) {
+		List<CallObject<T>> added = new ArrayList<>();
+		update(tree -> {
+			ClassScanner<T> scanner = new ClassScanner<>();
+			for (T listener : listeners) {
+				for (CallObject<T> co : scanner.scan(listener)) {
+					if (add(tree, co)) {
+						added.add(co);
+					}
+				}
+			}
+			checkOrder(tree, added);
+		});
+		return new Subscription(this, added);
+	}
+
+	/**
+	 * Trägt fertige CallObjects ein, z.B. für einen {@link EventPublisher}
+	 */
+	Subscription registerCallObjects(List<CallObject<T>> callObjects) {
+		List<CallObject<T>> added = new ArrayList<>();
+		update(tree -> {
+			for (CallObject<T> co : callObjects) {
+				if (add(tree, co)) {
+					added.add(co);
+				}
+			}
+			checkOrder(tree, added);
+		});
+		return new Subscription(this, added);
+	}
+
+	/**
+	 * Meldet alle Event Methoden dieser Listener Instanz (bzw. Klasse bei statischer Registrierung) ab
+	 */
+	public void unregister(Object listener) {
+		update(tree -> {
+			List<CallObject<T>> methods = byListener.get(listener);
+			if (methods != null) {
+				removeAll(tree, new ArrayList<>(methods));
+			}
+		});
+	}
+
+	/**
+	 * Meldet alle Event Methoden ab, die von der Klasse oder Instanzen der Klasse registriert wurden
+	 */
+	public void unregisterClass(Class<?> listenerClass) {
+		update(tree -> {
+			List<CallObject<T>> methods = byListenerClass.get(listenerClass);
+			if (methods != null) {
+				removeAll(tree, new ArrayList<>(methods));
+			}
+		});
+	}
+
+	/**
+	 * Meldet genau diese CallObjects ab
+	 */
+	void unregister(List<? extends CallObject<?>> callObjects) {
+		update(tree -> removeAll(tree, callObjects));
+	}
+
+	public void clear() {
+		update(tree -> {
+			List<CallObject<?>> removed = new ArrayList<>(byKey.values());
+			tree.clear();
+			byListener.clear();
+			byListenerClass.clear();
+			byKey.clear();
+			disabledListeners.clear();
+			orderedMethods = 0;
+			removed(removed);
+		});
+	}
+
+	/**
+	 * Führt alle Änderungen innerhalb von <code>changes</code> als einen Batch aus.<br>
+	 * Der neue eventTree wird erst am Ende einmal veröffentlicht.
+	 */
+	public void batch(Runnable changes) {
+		update(tree -> changes.run());
+	}
+
+	/**
+	 * Ändert die Arbeitskopie des eventTree und veröffentlicht sie danach,<br>
+	 * es sei denn es läuft gerade ein äußerer Batch auf diesem Thread.<br>
+	 * Die Listen in der Arbeitskopie sind unveränderlich, bis sie mit {@link #modify(Map, Class)} kopiert wurden.<br>
+	 * Schlägt <code>change</code> fehl, bleibt der alte Snapshot gültig und die Indizes werden daraus wiederhergestellt.
+	 */
+	public void update(Consumer<Map<Class<?>, List<CallObject<T>>>> change) {
+		writeLock.lock();
+		try {
+			if (working != null) {
+				change.accept(working);
+				return;
+			}
+
+			DispatchCache<T> published = snapshot;
+			Predicate<? super T> oldListenerState = listenerState;
+			Predicate<Class<?>> oldCoalescing = coalescing;
+			Consumer<List<CallObject<?>>> oldOnRemoved = onRemoved;
+			working = new HashMap<>(published.getEventTree());
+			allowSuperListeners = published.isAllowSuperListeners();
+			try {
+				change.accept(working);
+				publish(working);
+			} catch (Throwable ex) {
+				listenerState = oldListenerState;
+				coalescing = oldCoalescing;
+				onRemoved = oldOnRemoved;
+				restoreIndexes(published);
+				throw ex;
+			} finally {
+				working = null;
+			}
+
+			if (onRemoved != null && !pendingRemoved.isEmpty()) {
+				List<CallObject<?>> removed = new ArrayList<>(pendingRemoved);
+				pendingRemoved.clear();
+				onRemoved.accept(removed);
+			}
+			pendingRemoved.clear();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Die Liste der Eventklasse in der Arbeitskopie zum Ändern. Beim ersten Zugriff wird nur diese eine Liste kopiert.
+	 */
+	private List<CallObject<T>> modify(Map<Class<?>, List<CallObject<T>>> tree, Class<?> eventClass) {
+		List<CallObject<T>> methods = tree.get(eventClass);
+		if (!(methods instanceof ArrayList)) {
+			methods = methods == null ? new ArrayList<>() : new ArrayList<>(methods);
+			tree.put(eventClass, methods);
+		}
+		return methods;
+	}
+
+	/**
+	 * Baut die Rückwärts Indizes aus dem veröffentlichten Snapshot neu auf
+	 */
+	private void restoreIndexes(DispatchCache<T> published) {
+		byKey.clear();
+		byListener.clear();
+		byListenerClass.clear();
+		orderedMethods = 0;
+		pendingRemoved.clear();
+		for (List<CallObject<T>> methods : published.getEventTree().values()) {
+			for (CallObject<T> co : methods) {
+				byKey.put(new Key(co), co);
+				if (co.hasOrdering()) {
+					orderedMethods++;
+				}
+				byListener.computeIfAbsent(co.getType(), listener -> new ArrayList<>()).add(co);
+				byListenerClass.computeIfAbsent(getListenerClass(co), cl -> new ArrayList<>()).add(co);
+			}
+		}
+		disabledListeners.clear();
+		disabledListeners.addAll(published.getDisabledListeners());
+	}
+
+	/**
+	 * Fügt das CallObject an der Stelle seiner Priorität ein (hinter alle mit gleicher Priorität)
+	 * 
+	 * @return <code>false</code> wenn die Methode für diesen Listener schon registriert ist
+	 */
+	private boolean add(Map<Class<?>, List<CallObject<T>>> tree, CallObject<T> co) {
+		Key key = new Key(co);
+		if (byKey.containsKey(key)) {
+			return false;
+		}
+		byKey.put(key, co);
+		if (co.hasOrdering()) {
+			orderedMethods++;
+		}
+
+		List<CallObject<T>> methods = modify(tree, co.getEventClass());
+		methods.add(insertionPoint(methods, co.getPriority()), co);
+
+		List<CallObject<T>> own = byListener.computeIfAbsent(co.getType(), listener -> new ArrayList<>());
+		boolean known = hasFilterableMethods(own);
+		own.add(co);
+		if (listenerState != null && !known && !co.isCallAlways()) {
+			updateState(co.getType());
+		}
+		byListenerClass.computeIfAbsent(getListenerClass(co), cl -> new ArrayList<>()).add(co);
+		return true;
+	}
+
+	private void removeAll(Map<Class<?>, List<CallObject<T>>> tree, List<? extends CallObject<?>> callObjects) {
+		List<CallObject<?>> removed = new ArrayList<>(callObjects.size());
+		for (CallObject<?> co : callObjects) {
+			Key key = new Key(co);
+			if (byKey.get(key) != co) {
+				continue;
+			}
+			byKey.remove(key);
+			removed.add(co);
+			if (co.hasOrdering()) {
+				orderedMethods--;
+			}
+
+			if (tree.containsKey(co.getEventClass())) {
+				List<CallObject<T>> methods = modify(tree, co.getEventClass());
+				methods.remove(co);
+				if (methods.isEmpty()) {
+					tree.remove(co.getEventClass());
+				}
+			}
+			removeFromIndex(byListener, co.getType(), co);
+			if (!byListener.containsKey(co.getType())) {
+				disabledListeners.remove(co.getType());
+			}
+			removeFromIndex(byListenerClass, getListenerClass(co), co);
+		}
+		removed(removed);
+	}
+
+	private void removed(List<CallObject<?>> removed) {
+		pendingRemoved.addAll(removed);
+	}
+
+	/**
+	 * Sortiert jede Eventklasse einmal nach before/after, wie mit erlaubten Super Listenern.<br>
+	 * Weniger Listener können keinen neuen Zyklus bilden, das Umschalten braucht deshalb keine Prüfung.<br>
+	 * Geprüft werden die Klassen im eventTree und alle schon gecallten konkreten Klassen, deren Tabelle<br>
+	 * Listener mehrerer Interfaces oder Superklassen zusammenfasst. Bei einem Zyklus werden die neuen Methoden wieder entfernt.<br>
+	 * Ein Zyklus der nur bei einer noch nie gecallten Klasse auftritt, fällt erst in {@link DispatchTable#compile} auf.
+	 */
+	private void checkOrder(Map<Class<?>, List<CallObject<T>>> tree, List<CallObject<T>> added) {
+		if (orderedMethods == 0 || added.isEmpty()) {
+			return;
+		}
+		try {
+			Set<Class<?>> eventClasses = new HashSet<>(tree.keySet());
+			synchronized (compiledClasses) {
+				eventClasses.addAll(compiledClasses);
+			}
+			for (Class<?> eventClass : eventClasses) {
+				ListenerSchedule.sort(DispatchTable.merge(eventClass, tree, true, Collections.emptySet()));
+			}
+		} catch (IllegalStateException ex) {
+			removeAll(tree, added);
+			throw ex;
+		}
+	}
+
+	private static <K, V> void removeFromIndex(Map<K, List<V>> index, K key, Object value) {
+		List<V> values = index.get(key);
+		if (values != null) {
+			values.remove(value);
+			if (values.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Binäre Suche nach der ersten Position mit niedrigerer Priorität
+	 */
+	private int insertionPoint(List<CallObject<T>> methods, Priority priority) {
+		int low = 0;
+		int high = methods.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (methods.get(mid).getPriority().compareTo(priority) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return TRUE wenn der Listener deaktiviert ist
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean queryDisabled(Object listener) {
+		return !listenerState.test((T) listener);
+	}
+
+	/**
+	 * Listener die nur {@link CallAlways} Methoden haben, werden nie gefiltert und auch nicht abgefragt.<br>
+	 * Das gilt auch für interne Listener wie den {@link EventPublisher}, die kein T sind.
+	 */
+	private static boolean hasFilterableMethods(List<? extends CallObject<?>> methods) {
+		if (methods != null) {
+			for (CallObject<?> co : methods) {
+				if (!co.isCallAlways()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void updateState(Object listener) {
+		if (!hasFilterableMethods(byListener.get(listener))) {
+			disabledListeners.remove(listener);
+			return;
+		}
+		if (queryDisabled(listener)) {
+			disabledListeners.add(listener);
+		} else {
+			disabledListeners.remove(listener);
+		}
+	}
+
+	private static Class<?> getListenerClass(CallObject<?> co) {
+		Object type = co.getType();
+		return type instanceof Class ? (Class<?>) type : type.getClass();
+	}
+
+	/**
+	 * Nur die geänderten Listen werden eingefroren, die anderen sind noch die des alten Snapshots
+	 */
+	private void publish(Map<Class<?>, List<CallObject<T>>> tree) {
+		Map<Class<?>, List<CallObject<T>>> frozen = new HashMap<>();
+		for (Map.Entry<Class<?>, List<CallObject<T>>> entry : tree.entrySet()) {
+			List<CallObject<T>> methods = entry.getValue();
+			if (methods instanceof ArrayList) {
+				if (!methods.isEmpty()) {
+					frozen.put(entry.getKey(), Collections.unmodifiableList(methods));
+				}
+			} else {
+				frozen.put(entry.getKey(), methods);
+			}
+		}
+		Set<Object> disabled = Collections.emptySet();
+		if (!disabledListeners.isEmpty()) {
+			disabled = Collections.newSetFromMap(new IdentityHashMap<>());
+			disabled.addAll(disabledListeners);
+		}
+		snapshot = new DispatchCache<>(Collections.unmodifiableMap(frozen), allowSuperListeners, disabled, compiledClasses,
+				coalescing);
+	}
+
+	/**
+	 * Eine Methode darf pro Eventklasse und Listener nur einmal registriert sein.<br>
+	 * Der Listener wird per Identität verglichen, zwei Instanzen der selben Klasse sind also zwei Listener.
+	 */
+	private static final class Key {
+
+		final Class<?> eventClass;
+		final Class<?> declaringClass;
+		final String name;
+		final boolean batch;
+		final Object listener;
+
+		Key(CallObject<?> co) {
+			this.eventClass = co.getEventClass();
+			this.declaringClass = co.getDeclaringClass();
+			this.name = co.getName();
+			this.batch = co.isBatch();
+			this.listener = co.getType();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return listener == other.listener && eventClass == other.eventClass && declaringClass == other.declaringClass
+					&& batch == other.batch && name.equals(other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode(listener);
+			hash = 31 * hash + eventClass.hashCode();
+			hash = 31 * hash + declaringClass.hashCode();
+			hash = 31 * hash + name.hashCode();
+			return batch ? ~hash : hash;
+		}
+	}
+}
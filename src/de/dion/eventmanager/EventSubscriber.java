@@ -0,0 +1,91 @@
+package de.dion.eventmanager;
+
+import java.util.concurrent.Flow;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Callt jedes Event eines vorgelagerten {@link Flow.Publisher} im {@link EventManager}.<br>
+ * <br>
+ * Fordert <code>prefetch</code> Events an und jeweils die Hälfte nach, sobald sie gecallt wurden.<br>
+ * Bei synchronen Events kann der Publisher also nie mehr Events schicken als der EventManager gerade abarbeitet.<br>
+ * Asynchrone, zusammengefasste und über Ring Buffer oder Partitionierung verteilte Events sind nach dem call<br>
+ * nur angenommen, ihre Listener laufen später. Dort bremst den Publisher höchstens eine volle {@link EventQueue}<br>
+ * mit {@link OverflowPolicy#Block} oder {@link OverflowPolicy#CallerRuns}, ein voller Ring oder eine volle Lane.<br>
+ * <br>
+ * Fehler beim Callen und Fehler des Publishers gehen an den {@link ListenerExceptionHandler} des EventManagers.<br>
+ * Der Fehler des Publishers bleibt außerdem über {@link #getError()} abrufbar.
+ *
+ * @see EventManager#subscribeTo(Flow.Publisher)
+ */
+public class EventSubscriber implements Flow.Subscriber<Event> {
+
+	private final EventManager<?> manager;
+	private final int prefetch;
+	private final int refill;
+	private volatile Flow.Subscription upstream;
+	private volatile Throwable error;
+	private int received;
+
+	public EventSubscriber(EventManager<?> manager, int prefetch) {
+		if (prefetch < 1) {
+			throw new IllegalArgumentException("Es muss mindestens ein Event angefordert werden");
+		}
+		this.manager = manager;
+		this.prefetch = prefetch;
+		this.refill = Math.max(1, prefetch / 2);
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		if (upstream != null) {
+			subscription.cancel();
+			return;
+		}
+		upstream = subscription;
+		subscription.request(prefetch);
+	}
+
+	/**
+	 * Wird laut Reactive Streams nie gleichzeitig aufgerufen, received braucht deshalb keine Synchronisation
+	 */
+	@Override
+	public void onNext(Event event) {
+		try {
+			manager.call(event);
+		} catch (Throwable ex) {
+			manager.reportError(event, ex);
+		}
+		if (++received == refill) {
+			received = 0;
+			upstream.request(refill);
+		}
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		error = throwable;
+		manager.reportError(null, throwable);
+	}
+
+	@Override
+	public void onComplete() {
+	}
+
+	/**
+	 * Der Fehler mit dem der Publisher abgebrochen hat oder <code>null</code>
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Beendet das Abonnement, danach kommen keine weiteren Events mehr
+	 */
+	public void cancel() {
+		Flow.Subscription current = upstream;
+		if (current != null) {
+			current.cancel();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package de.dion.eventmanager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cached pro Eventklasse alle Typen, unter denen Listener für sie registriert sein können.<br>
+ * <br>
+ * Die Hierarchie wird nur einmal pro Klasse aufgelöst und überlebt Änderungen am eventTree,<br>
+ * da sie nur von der Klasse selbst abhängt.<br>
+ * <br>
+ * Interfaces des JDK (z.B. Runnable oder Serializable) sind keine Event Typen, sonst würde eine Methode<br>
+ * mit so einem Parameter jedes Event bekommen das es zufällig implementiert.
+ * 
+ * @see DispatchTable#compile
+ */
+final class EventTypes {
+
+	private static final String[] JDK_PACKAGES = { "java.", "javax.", "jdk.", "sun." };
+
+	private static final ClassValue<Class<?>[]> SUPERCLASSES = new ClassValue<Class<?>[]>() {
+		@Override
+		protected Class<?>[] computeValue(Class<?> type) {
+			List<Class<?>> classes = new ArrayList<>();
+			for (Class<?> cl = type; cl != null && cl != Object.class; cl = cl.getSuperclass()) {
+				classes.add(cl);
+			}
+			return classes.toArray(new Class<?>[classes.size()]);
+		}
+	};
+
+	private static final ClassValue<Class<?>[]> INTERFACES = new ClassValue<Class<?>[]>() {
+		@Override
+		protected Class<?>[] computeValue(Class<?> type) {
+			Set<Class<?>> interfaces = new LinkedHashSet<>();
+			for (Class<?> cl : getSuperclasses(type)) {
+				collect(cl, interfaces);
+			}
+			return interfaces.toArray(new Class<?>[interfaces.size()]);
+		}
+
+		private void collect(Class<?> type, Set<Class<?>> interfaces) {
+			for (Class<?> in : type.getInterfaces()) {
+				// Interfaces des JDK erweitern nur andere JDK Interfaces
+				if (isEventInterface(in) && interfaces.add(in)) {
+					collect(in, interfaces);
+				}
+			}
+		}
+	};
+
+	private EventTypes() {
+	}
+
+	/**
+	 * Die Klasse selbst und ihre Superklassen ohne Object, die genaueste zuerst
+	 */
+	static Class<?>[] getSuperclasses(Class<?> eventClass) {
+		return SUPERCLASSES.get(eventClass);
+	}
+
+	/**
+	 * TRUE wenn unter dem Interface Listener registriert werden dürfen, also alle außer denen des JDK
+	 */
+	static boolean isEventInterface(Class<?> type) {
+		if (!type.isInterface()) {
+			return false;
+		}
+		String name = type.getName();
+		for (String prefix : JDK_PACKAGES) {
+			if (name.startsWith(prefix)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Alle Interfaces der Klasse, ihrer Superklassen und deren Superinterfaces, ohne die des JDK
+	 */
+	static Class<?>[] getInterfaces(Class<?> eventClass) {
+		return INTERFACES.get(eventClass);
+	}
+}
@@ -0,0 +1,174 @@
+package de.dion.eventmanager;
+
+import java.util.function.Function;
+
+/**
+ * Eine Event Methode aus einem {@link ListenerIndex}.<br>
+ * <br>
+ * Enthält alles was sonst per Reflection aus der Methode gelesen wird<br>
+ * und erzeugt die direkten Aufrufer ohne Reflection.
+ */
+public final class IndexedHandler {
+
+	private final String name;
+	private final Class<?> declaringClass;
+	private final Class<?> eventClass;
+	private final boolean staticMethod;
+
+	private Priority priority = Priority.Normal;
+	private boolean callAlways;
+	private long timeBudget;
+	private boolean ignoreCanceled;
+	private Class<?>[] filters = new Class<?>[0];
+	private String id;
+	private String[] before = new String[0];
+	private String[] after = new String[0];
+	private boolean concurrent;
+	private boolean readOnly;
+	private Function<Object, EventInvoker> invoker;
+	private Function<Object, BatchInvoker> batchInvoker;
+
+	public IndexedHandler(String name, Class<?> declaringClass, Class<?> eventClass, boolean staticMethod) {
+		this.name = name;
+		this.declaringClass = declaringClass;
+		this.eventClass = eventClass;
+		this.staticMethod = staticMethod;
+	}
+
+	public IndexedHandler priority(Priority priority) {
+		this.priority = priority;
+		return this;
+	}
+
+	public IndexedHandler callAlways(boolean callAlways) {
+		this.callAlways = callAlways;
+		return this;
+	}
+
+	public IndexedHandler timeBudget(long timeBudget) {
+		this.timeBudget = timeBudget;
+		return this;
+	}
+
+	public IndexedHandler ignoreCanceled(boolean ignoreCanceled) {
+		this.ignoreCanceled = ignoreCanceled;
+		return this;
+	}
+
+	/**
+	 * Die {@link EventFilter} Klassen aus {@link EventHandler#filter()}
+	 */
+	public IndexedHandler filters(Class<?>... filters) {
+		this.filters = filters;
+		return this;
+	}
+
+	public IndexedHandler id(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public IndexedHandler before(String... before) {
+		this.before = before;
+		return this;
+	}
+
+	public IndexedHandler after(String... after) {
+		this.after = after;
+		return this;
+	}
+
+	public IndexedHandler concurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+		return this;
+	}
+
+	public IndexedHandler readOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+		return this;
+	}
+
+	/**
+	 * @param invoker Bekommt die Listener Instanz (bei statischen Methoden die Klasse)
+	 */
+	public IndexedHandler invoker(Function<Object, EventInvoker> invoker) {
+		this.invoker = invoker;
+		return this;
+	}
+
+	/**
+	 * Für Methoden mit der {@link Batch} Annotation
+	 */
+	public IndexedHandler batchInvoker(Function<Object, BatchInvoker> batchInvoker) {
+		this.batchInvoker = batchInvoker;
+		return this;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<?> getDeclaringClass() {
+		return declaringClass;
+	}
+
+	public Class<?> getEventClass() {
+		return eventClass;
+	}
+
+	public boolean isStatic() {
+		return staticMethod;
+	}
+
+	public Priority getPriority() {
+		return priority;
+	}
+
+	public boolean isCallAlways() {
+		return callAlways;
+	}
+
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	public boolean isIgnoreCanceled() {
+		return ignoreCanceled;
+	}
+
+	public Class<?>[] getFilters() {
+		return filters;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String[] getBefore() {
+		return before;
+	}
+
+	public String[] getAfter() {
+		return after;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	public boolean isBatch() {
+		return batchInvoker != null;
+	}
+
+	public EventInvoker createInvoker(Object target) {
+		return invoker.apply(target);
+	}
+
+	public BatchInvoker createBatchInvoker(Object target) {
+		return batchInvoker.apply(target);
+	}
+}
@@ -0,0 +1,119 @@
+package de.dion.eventmanager;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Erzeugt die {@link EventInvoker} für die Event Methoden.<br>
+ * <br>
+ * Reihenfolge:<br>
+ * 1. {@link LambdaMetafactory} (wie ein normales Lambda, kann vom JIT geinlined werden)<br>
+ * 2. gebundenes {@link MethodHandle}, z.B. wenn die Listener Klasse nicht public ist<br>
+ * 3. reflektives {@link Method#invoke} als letzter Ausweg
+ */
+final class Invokers {
+
+	private static final MethodType SAM_TYPE = MethodType.methodType(void.class, Event.class);
+	private static final MethodType BATCH_SAM_TYPE = MethodType.methodType(void.class, List.class);
+
+	private Invokers() {
+	}
+
+	/**
+	 * @param m Die Event Methode
+	 * @param target Die Listener Instanz oder die Klasse bei statischen Methoden
+	 */
+	static EventInvoker create(Method m, Object target) {
+		Object receiver = getReceiver(m, target);
+
+		if (isPublic(m)) {
+			try {
+				return (EventInvoker) metafactory(m, receiver, EventInvoker.class, SAM_TYPE);
+			} catch (Throwable ex) {
+				// weiter mit dem MethodHandle
+			}
+		}
+		try {
+			MethodHandle typed = methodHandle(m, receiver, SAM_TYPE);
+			return event -> {
+				typed.invokeExact(event);
+			};
+		} catch (Throwable ex) {
+			return event -> m.invoke(receiver, event);
+		}
+	}
+
+	/**
+	 * Wie {@link #create(Method, Object)}, nur für Methoden mit der {@link Batch} Annotation
+	 */
+	static BatchInvoker createBatch(Method m, Object target) {
+		Object receiver = getReceiver(m, target);
+
+		if (isPublic(m)) {
+			try {
+				return (BatchInvoker) metafactory(m, receiver, BatchInvoker.class, BATCH_SAM_TYPE);
+			} catch (Throwable ex) {
+				// weiter mit dem MethodHandle
+			}
+		}
+		try {
+			MethodHandle typed = methodHandle(m, receiver, BATCH_SAM_TYPE);
+			return events -> {
+				typed.invokeExact(events);
+			};
+		} catch (Throwable ex) {
+			return events -> m.invoke(receiver, events);
+		}
+	}
+
+	private static Object metafactory(Method m, Object receiver, Class<?> sam, MethodType samType) throws Throwable {
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(m.getDeclaringClass(), MethodHandles.lookup());
+		MethodHandle impl = lookup.unreflect(m);
+		MethodType instantiated = MethodType.methodType(void.class, m.getParameterTypes()[0]);
+		MethodType factoryType = receiver == null
+				? MethodType.methodType(sam)
+				: MethodType.methodType(sam, m.getDeclaringClass());
+
+		CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", factoryType, samType, impl, instantiated);
+		if (receiver == null) {
+			return site.getTarget().invoke();
+		}
+		return site.getTarget().invoke(receiver);
+	}
+
+	private static MethodHandle methodHandle(Method m, Object receiver, MethodType samType) throws IllegalAccessException {
+		m.setAccessible(true);
+		MethodHandle handle = MethodHandles.lookup().unreflect(m);
+		if (receiver != null) {
+			handle = handle.bindTo(receiver);
+		}
+		return handle.asType(samType);
+	}
+
+	private static Object getReceiver(Method m, Object target) {
+		return Modifier.isStatic(m.getModifiers()) ? null : target;
+	}
+
+	private static boolean isPublic(Method m) {
+		Class<?> cl = m.getDeclaringClass();
+		if (cl.getName().indexOf('/') >= 0) {
+			// Hidden Class, kann von der generierten Lambda Klasse nicht per Name aufgelöst werden
+			return false;
+		}
+		while (cl != null) {
+			if (!Modifier.isPublic(cl.getModifiers())) {
+				return false;
+			}
+			cl = cl.getDeclaringClass();
+		}
+		return Modifier.isPublic(m.getModifiers());
+	}
+}
@@ -0,0 +1,50 @@
+package de.dion.eventmanager;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Fasst alle Fehler zusammen, die beim callen eines Events in den Listenern aufgetreten sind.<br>
+ * <br>
+ * Der erste Fehler ist die Cause, alle weiteren sind als Suppressed angehängt.<br>
+ * Fehler die keinem Event zugeordnet sind (z.B. von einem {@link java.util.concurrent.Flow.Publisher}) haben kein Event.
+ * 
+ * @see EventManager#callAsync(Event)
+ */
+public class ListenerException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Event event;
+	private final transient List<Throwable> errors;
+
+	/**
+	 * @param event Das Event oder <code>null</code>
+	 */
+	public ListenerException(Event event, List<Throwable> errors) {
+		super(errors.size() + (event != null ? " Listener von " + event.getClass().getSimpleName() : " Listener") + " sind fehlgeschlagen",
+				errors.get(0));
+		this.event = event;
+		this.errors = Collections.unmodifiableList(errors);
+
+		for (int i = 1; i < errors.size(); i++) {
+			addSuppressed(errors.get(i));
+		}
+	}
+
+	/**
+	 * @return Das Event oder <code>null</code> wenn der Fehler keinem Event zugeordnet ist
+	 */
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * Alle Fehler in der Reihenfolge in der die Listener aufgerufen wurden
+	 */
+	public List<Throwable> getErrors() {
+		return errors;
+	}
+}
@@ -0,0 +1,82 @@
+package de.dion.eventmanager;
+
+import java.util.Collections;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Entscheidet was mit einem Fehler aus einer Event Methode passiert.<br>
+ * <br>
+ * Bekommt immer die eigentliche Ursache, eine InvocationTargetException wird vorher ausgepackt.<br>
+ * Die mitgelieferten Varianten lassen sich mit {@link #andThen(ListenerExceptionHandler)} kombinieren.
+ * 
+ * @see EventManager#setExceptionHandler(ListenerExceptionHandler)
+ */
+@FunctionalInterface
+public interface ListenerExceptionHandler {
+
+	/**
+	 * @param listener Die fehlgeschlagene Event Methode, <code>null</code> bei Fehlern außerhalb einer Methode<br>
+	 *                 (z.B. auf dem Thread von Ring Buffer, Queue oder Coalescer)
+	 * @param event    Das Event, bei {@link Batch} Methoden das erste der Liste, <code>null</code> wenn es keins gibt
+	 */
+	void handle(CallObject<?> listener, Event event, Throwable error);
+
+	/**
+	 * Führt danach noch den anderen Handler aus
+	 */
+	default ListenerExceptionHandler andThen(ListenerExceptionHandler next) {
+		return (listener, event, error) -> {
+			handle(listener, event, error);
+			next.handle(listener, event, error);
+		};
+	}
+
+	/**
+	 * Gibt jeden unterschiedlichen Fehler einmal komplett aus und Wiederholungen<br>
+	 * höchstens alle 10 Sekunden als eine Zeile mit ihrer Anzahl
+	 * 
+	 * @see LoggingExceptionHandler
+	 */
+	static ListenerExceptionHandler log() {
+		return new LoggingExceptionHandler();
+	}
+
+	/**
+	 * Wirft den Fehler im Thread weiter, der das Event gecallt hat. Die restlichen Listener werden nicht mehr aufgerufen.<br>
+	 * Checked Exceptions werden in eine {@link ListenerException} verpackt.
+	 */
+	static ListenerExceptionHandler rethrow() {
+		return (listener, event, error) -> {
+			if (error instanceof RuntimeException) {
+				throw (RuntimeException) error;
+			}
+			if (error instanceof Error) {
+				throw (Error) error;
+			}
+			throw new ListenerException(event, Collections.singletonList(error));
+		};
+	}
+
+	/**
+	 * Hängt den Fehler an das Event, der Aufrufer kann ihn danach mit {@link Event#getErrors()} auswerten.<br>
+	 * Fehler ohne Event gehen verloren.
+	 */
+	static ListenerExceptionHandler collect() {
+		return (listener, event, error) -> {
+			if (event != null) {
+				event.addError(error);
+			}
+		};
+	}
+
+	/**
+	 * Setzt eine Event Methode nach <code>failures</code> Fehlern in Quarantäne, wie der {@link ListenerWatchdog}.<br>
+	 * Mit {@link EventManager#releaseQuarantine(Object)} wird sie wieder aufgerufen.
+	 * 
+	 * @param delegate Bekommt jeden Fehler und die {@link ListenerQuarantinedException} bei einer neuen Quarantäne
+	 */
+	static ListenerExceptionHandler circuitBreaker(int failures, ListenerExceptionHandler delegate) {
+		return new CircuitBreakerExceptionHandler(failures, delegate);
+	}
+}
@@ -0,0 +1,29 @@
+package de.dion.eventmanager;
+
+import java.util.List;
+
+/**
+ * Zur Compilezeit erzeugter Index der Event Methoden einer Listener Klasse.<br>
+ * <br>
+ * Wird vom {@link de.dion.eventmanager.processor.ListenerIndexProcessor} als<br>
+ * <code>&lt;Listener&gt;_EventIndex</code> im selben Package generiert. Ist ein Index<br>
+ * vorhanden, muss der {@link ClassScanner} die Klasse nicht mehr per Reflection<br>
+ * durchsuchen und die Methoden werden direkt statt über Reflection aufgerufen.
+ * 
+ * @see ListenerIndexes
+ */
+public interface ListenerIndex {
+
+	/**
+	 * Namensendung der generierten Index Klassen
+	 */
+	String SUFFIX = "_EventIndex";
+
+	Class<?> getListenerClass();
+
+	/**
+	 * Alle Event Methoden der Listener Klasse, inklusive geerbter
+	 */
+	List<IndexedHandler> getHandlers();
+
+}
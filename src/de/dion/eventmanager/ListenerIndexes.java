@@ -0,0 +1,95 @@
+package de.dion.eventmanager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lädt die vom {@link de.dion.eventmanager.processor.ListenerIndexProcessor}<br>
+ * erzeugten {@link ListenerIndex} Klassen.
+ */
+public final class ListenerIndexes {
+
+	/**
+	 * Liste aller Listener Klassen mit Index, eine pro Zeile
+	 */
+	public static final String RESOURCE = "META-INF/de.dion.eventmanager/listeners";
+
+	private static final ClassValue<ListenerIndex> CACHE = new ClassValue<ListenerIndex>() {
+
+		@Override
+		protected ListenerIndex computeValue(Class<?> listenerClass) {
+			return load(listenerClass);
+		}
+	};
+
+	private ListenerIndexes() {
+	}
+
+	/**
+	 * @return Den Index der Listener Klasse oder <code>null</code> wenn keiner generiert wurde
+	 * @throws IllegalStateException wenn der generierte Index nicht geladen werden kann
+	 */
+	public static ListenerIndex get(Class<?> listenerClass) {
+		return CACHE.get(listenerClass);
+	}
+
+	/**
+	 * Gibt alle Listener Klassen zurück die in einem Index stehen, ohne Packages zu scannen.<br>
+	 * <br>
+	 * Beispiel:<br>
+	 * <code>eventManager.registerEvents(ListenerIndexes.getIndexedClasses(loader));</code>
+	 */
+	public static List<Class<?>> getIndexedClasses(ClassLoader loader) throws IOException, ClassNotFoundException {
+		Set<String> names = new LinkedHashSet<>();
+		Enumeration<URL> resources = loader.getResources(RESOURCE);
+		while (resources.hasMoreElements()) {
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (!line.isEmpty() && !line.startsWith("#")) {
+						names.add(line);
+					}
+				}
+			}
+		}
+
+		List<Class<?>> classes = new ArrayList<>(names.size());
+		for (String name : names) {
+			classes.add(Class.forName(name, false, loader));
+		}
+		return classes;
+	}
+
+	/**
+	 * Name der generierten Index Klasse, z.B. <code>a.b.Outer$Inner</code> wird zu <code>a.b.Outer_Inner_EventIndex</code>
+	 */
+	public static String getIndexName(String binaryName) {
+		return binaryName.replace('$', '_') + ListenerIndex.SUFFIX;
+	}
+
+	private static ListenerIndex load(Class<?> listenerClass) {
+		ClassLoader loader = listenerClass.getClassLoader();
+		if (loader == null) {
+			return null;
+		}
+		try {
+			Class<?> indexClass = Class.forName(getIndexName(listenerClass.getName()), true, loader);
+			ListenerIndex index = (ListenerIndex) indexClass.getDeclaredConstructor().newInstance();
+			return index.getListenerClass() == listenerClass ? index : null;
+		} catch (ClassNotFoundException ex) {
+			return null;
+		} catch (ReflectiveOperationException | ClassCastException ex) {
+			throw new IllegalStateException("Der Listener Index von " + listenerClass.getName() + " ist fehlerhaft", ex);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package de.dion.eventmanager;
+
+/**
+ * Wird an den {@link ListenerExceptionHandler} gemeldet, wenn eine Event Methode in Quarantäne gesetzt wurde.<br>
+ * <br>
+ * Die Cause ist der Fehler bzw. die {@link SlowListenerException}, die die Quarantäne ausgelöst hat.
+ *
+ * @see ListenerWatchdog
+ * @see CircuitBreakerExceptionHandler
+ */
+public class ListenerQuarantinedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient CallObject<?> callObject;
+
+	public ListenerQuarantinedException(CallObject<?> callObject, String reason, Throwable cause) {
+		super(callObject + " ist nach " + reason + " in Quarantäne", cause);
+		this.callObject = callObject;
+	}
+
+	public CallObject<?> getCallObject() {
+		return callObject;
+	}
+}
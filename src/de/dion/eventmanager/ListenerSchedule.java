@@ -0,0 +1,194 @@
+package de.dion.eventmanager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Ordnet die Methoden eines Events nach {@link EventHandler#before()} und {@link EventHandler#after()}.<br>
+ * <br>
+ * Die Liste wird topologisch sortiert, die Priorität (also die Position in der sortierten Liste)<br>
+ * entscheidet nur zwischen Methoden, die keine Beziehung zueinander haben. Ohne before/after<br>
+ * bleibt die Reihenfolge also genau wie bisher. Beziehungen gelten nur zwischen Methoden,<br>
+ * die für das selbe Event aufgerufen werden.<br>
+ * <br>
+ * Danach werden die Stufen für {@link EventHandler#concurrent()} Methoden bestimmt.<br>
+ * Alles passiert einmal beim Bauen der {@link DispatchTable}, nicht beim callen.
+ */
+final class ListenerSchedule {
+
+	private ListenerSchedule() {
+	}
+
+	/**
+	 * @param byPriority Nach Priorität sortierte Methoden
+	 * @throws IllegalStateException bei einem Zyklus, die Meldung enthält die Methoden im Zyklus
+	 * @return Die Methoden in Aufrufreihenfolge, <code>byPriority</code> selbst wenn es keine Beziehungen gibt
+	 */
+	static <T> List<CallObject<T>> sort(List<CallObject<T>> byPriority) {
+		int n = byPriority.size();
+		BitSet[] successors = null;
+		int[] incoming = new int[n];
+
+		for (int i = 0; i < n; i++) {
+			CallObject<T> co = byPriority.get(i);
+			if (!co.hasOrdering()) {
+				continue;
+			}
+			if (successors == null) {
+				successors = new BitSet[n];
+			}
+			for (String name : co.getBefore()) {
+				for (int j = 0; j < n; j++) {
+					if (j != i && byPriority.get(j).matches(name)) {
+						addEdge(successors, incoming, i, j);
+					}
+				}
+			}
+			for (String name : co.getAfter()) {
+				for (int j = 0; j < n; j++) {
+					if (j != i && byPriority.get(j).matches(name)) {
+						addEdge(successors, incoming, j, i);
+					}
+				}
+			}
+		}
+		if (successors == null) {
+			return byPriority;
+		}
+
+		// Kahn, von den freien Methoden wird immer die mit der höchsten Priorität genommen
+		BitSet ready = new BitSet(n);
+		for (int i = 0; i < n; i++) {
+			if (incoming[i] == 0) {
+				ready.set(i);
+			}
+		}
+		List<CallObject<T>> ordered = new ArrayList<>(n);
+		for (int i = ready.nextSetBit(0); i >= 0; i = ready.nextSetBit(0)) {
+			ready.clear(i);
+			ordered.add(byPriority.get(i));
+			if (successors[i] != null) {
+				for (int j = successors[i].nextSetBit(0); j >= 0; j = successors[i].nextSetBit(j + 1)) {
+					if (--incoming[j] == 0) {
+						ready.set(j);
+					}
+				}
+			}
+		}
+
+		if (ordered.size() < n) {
+			throw new IllegalStateException("Zyklus in before/after: " + describeCycle(byPriority, successors, incoming));
+		}
+		return ordered;
+	}
+
+	/**
+	 * Bestimmt die Stufen aus {@link EventHandler#concurrent()} Methoden.
+	 * 
+	 * @param ordered Die Methoden in Aufrufreihenfolge
+	 * @return Für jeden Index das Ende (exklusiv) der Stufe die dort beginnt, <code>null</code> wenn es keine Stufe<br>
+	 *         mit mindestens zwei Methoden gibt
+	 */
+	static int[] stages(CallObject<?>[] ordered) {
+		int[] stageEnd = null;
+		int i = 0;
+		while (i < ordered.length) {
+			int end = i + 1;
+			if (ordered[i].isConcurrent()) {
+				while (end < ordered.length && canJoin(ordered, i, end)) {
+					end++;
+				}
+			}
+			if (end - i > 1 && stageEnd == null) {
+				stageEnd = new int[ordered.length];
+				for (int k = 0; k < i; k++) {
+					stageEnd[k] = k + 1;
+				}
+			}
+			if (stageEnd != null) {
+				stageEnd[i] = end;
+				for (int k = i + 1; k < end; k++) {
+					stageEnd[k] = k + 1;
+				}
+			}
+			i = end;
+		}
+		return stageEnd;
+	}
+
+	/**
+	 * Die Methode darf in die Stufe <code>[start, candidate)</code>, wenn sie concurrent ist,<br>
+	 * die gleiche Priorität hat und keine before/after Beziehung zu einer Methode der Stufe hat
+	 */
+	private static boolean canJoin(CallObject<?>[] ordered, int start, int candidate) {
+		CallObject<?> co = ordered[candidate];
+		if (!co.isConcurrent() || co.getPriority() != ordered[start].getPriority()) {
+			return false;
+		}
+		for (int k = start; k < candidate; k++) {
+			if (isRelated(co, ordered[k]) || isRelated(ordered[k], co)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isRelated(CallObject<?> from, CallObject<?> to) {
+		for (String name : from.getBefore()) {
+			if (to.matches(name)) {
+				return true;
+			}
+		}
+		for (String name : from.getAfter()) {
+			if (to.matches(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addEdge(BitSet[] successors, int[] incoming, int from, int to) {
+		if (successors[from] == null) {
+			successors[from] = new BitSet();
+		}
+		if (!successors[from].get(to)) {
+			successors[from].set(to);
+			incoming[to]++;
+		}
+	}
+
+	/**
+	 * Jede übrig gebliebene Methode hat einen übrig gebliebenen Vorgänger,<br>
+	 * rückwärts laufend kommt man deshalb immer wieder an eine schon besuchte Methode
+	 */
+	private static String describeCycle(List<? extends CallObject<?>> methods, BitSet[] successors, int[] incoming) {
+		int n = methods.size();
+		int[] visitedAt = new int[n];
+		List<Integer> path = new ArrayList<>();
+		int current = 0;
+		while (incoming[current] == 0) {
+			current++;
+		}
+
+		while (visitedAt[current] == 0) {
+			path.add(current);
+			visitedAt[current] = path.size();
+			int next = current;
+			for (int p = 0; p < n; p++) {
+				if (incoming[p] > 0 && successors[p] != null && successors[p].get(current)) {
+					next = p;
+					break;
+				}
+			}
+			current = next;
+		}
+
+		StringBuilder out = new StringBuilder();
+		List<Integer> cycle = path.subList(visitedAt[current] - 1, path.size());
+		for (int k = cycle.size() - 1; k >= 0; k--) {
+			out.append(methods.get(cycle.get(k))).append(" -> ");
+		}
+		return out.append(methods.get(cycle.get(cycle.size() - 1))).toString();
+	}
+}
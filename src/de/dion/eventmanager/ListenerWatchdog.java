@@ -0,0 +1,172 @@
+package de.dion.eventmanager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Überwacht wie lange Event Methoden laufen.<br>
+ * <br>
+ * Jeder Thread der Events callt bekommt einen eigenen Slot, in den er vor dem Aufruf<br>
+ * die Methode und die Startzeit schreibt. Der Watchdog Thread schaut die Slots regelmäßig durch<br>
+ * und meldet Methoden die ihr Budget überschreiten als {@link SlowListenerException} mit dem Stacktrace,<br>
+ * an dem sie gerade hängen. Methoden die nur knapp über dem Budget fertig werden, meldet der aufrufende Thread selbst.<br>
+ * <br>
+ * Nach <code>quarantineAfter</code> Überschreitungen wird die Methode in Quarantäne gesetzt<br>
+ * und wie bei {@link EventManager#shouldCallEvent(Object, de.dion.eventmanager.events.Event)} == false<br>
+ * übersprungen ({@link CallAlways} Methoden laufen weiter), das wird als {@link ListenerQuarantinedException} gemeldet.
+ *
+ * @see EventManager#enableWatchdog(long, int)
+ */
+public class ListenerWatchdog {
+
+	private static final long CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final long defaultBudget;
+	private final int quarantineAfter;
+	private final BiConsumer<CallObject<?>, Throwable> onReport;
+	private final Set<Slot> slots = ConcurrentHashMap.newKeySet();
+	private final ThreadLocal<Slot> localSlot = ThreadLocal.withInitial(this::createSlot);
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	/**
+	 * @param defaultBudget   Budget in Millisekunden für Methoden ohne eigenes {@link EventHandler#timeBudget()},<br>
+	 *                        0 überwacht nur Methoden mit eigenem Budget
+	 * @param quarantineAfter Nach wie vielen Überschreitungen eine Methode in Quarantäne kommt, 0 für nie
+	 */
+	public ListenerWatchdog(long defaultBudget, int quarantineAfter) {
+		this(defaultBudget, quarantineAfter, log(new LoggingExceptionHandler()));
+	}
+
+	/**
+	 * @param onReport Bekommt die Überschreitungen und Quarantänen, auf dem Watchdog Thread<br>
+	 *                 oder dem Thread der die Methode aufgerufen hat
+	 */
+	public ListenerWatchdog(long defaultBudget, int quarantineAfter, BiConsumer<CallObject<?>, Throwable> onReport) {
+		if (defaultBudget < 0 || quarantineAfter < 0) {
+			throw new IllegalArgumentException("Budget und Quarantäne Grenze dürfen nicht negativ sein");
+		}
+		this.defaultBudget = TimeUnit.MILLISECONDS.toNanos(defaultBudget);
+		this.quarantineAfter = quarantineAfter;
+		this.onReport = onReport;
+
+		thread = new Thread(this::run, "EventManager-Watchdog");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Wird vor dem Aufruf einer Event Methode aufgerufen.
+	 *
+	 * @return Der Slot für {@link #exit(Slot)} oder <code>null</code> wenn die Methode nicht überwacht wird
+	 */
+	Slot enter(CallObject<?> co) {
+		long budget = co.getTimeBudget() > 0 ? TimeUnit.MILLISECONDS.toNanos(co.getTimeBudget()) : defaultBudget;
+		if (budget <= 0) {
+			return null;
+		}
+
+		Slot slot = localSlot.get();
+		if (slot.current != null) {
+			// Event wird aus einer Event Methode gecallt, die äußere Methode wird schon überwacht
+			return null;
+		}
+		slot.reported.set(false);
+		slot.budget = budget;
+		slot.start = System.nanoTime();
+		slot.current = co;
+		return slot;
+	}
+
+	void exit(Slot slot) {
+		CallObject<?> co = slot.current;
+		long nanos = System.nanoTime() - slot.start;
+		slot.current = null;
+
+		if (nanos > slot.budget && slot.reported.compareAndSet(false, true)) {
+			report(co, nanos, slot.budget, null);
+		}
+	}
+
+	public void shutdown() {
+		running = false;
+		thread.interrupt();
+	}
+
+	private static BiConsumer<CallObject<?>, Throwable> log(ListenerExceptionHandler handler) {
+		return (co, error) -> handler.handle(co, null, error);
+	}
+
+	private Slot createSlot() {
+		Slot slot = new Slot(Thread.currentThread());
+		slots.add(slot);
+		return slot;
+	}
+
+	private void run() {
+		while (running) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(CHECK_INTERVAL);
+			} catch (InterruptedException ex) {
+				return;
+			}
+
+			for (Slot slot : slots) {
+				if (!slot.thread.isAlive()) {
+					slots.remove(slot);
+					continue;
+				}
+				check(slot);
+			}
+		}
+	}
+
+	private void check(Slot slot) {
+		CallObject<?> co = slot.current;
+		if (co == null) {
+			return;
+		}
+		long nanos = System.nanoTime() - slot.start;
+		if (nanos <= slot.budget || slot.reported.get()) {
+			return;
+		}
+
+		StackTraceElement[] stack = slot.thread.getStackTrace();
+		// Die Methode könnte inzwischen fertig sein, dann gehört der Stacktrace zu etwas anderem
+		if (slot.current == co && slot.reported.compareAndSet(false, true)) {
+			report(co, nanos, slot.budget, stack);
+		}
+	}
+
+	private void report(CallObject<?> co, long nanos, long budget, StackTraceElement[] stack) {
+		int violations = co.addBudgetViolation();
+
+		SlowListenerException ex = new SlowListenerException(co, nanos, budget, stack != null);
+		if (stack != null) {
+			ex.setStackTrace(stack);
+		}
+		onReport.accept(co, ex);
+
+		if (quarantineAfter > 0 && violations >= quarantineAfter && !co.isQuarantined()) {
+			ListenerQuarantinedException quarantined = new ListenerQuarantinedException(co, violations + " Überschreitungen", ex);
+			co.setQuarantined(true);
+			onReport.accept(co, quarantined);
+		}
+	}
+
+	static final class Slot {
+
+		final Thread thread;
+		final AtomicBoolean reported = new AtomicBoolean();
+		volatile CallObject<?> current;
+		volatile long start;
+		volatile long budget;
+
+		Slot(Thread thread) {
+			this.thread = thread;
+		}
+	}
+}
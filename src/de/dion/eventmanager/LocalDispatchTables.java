@@ -0,0 +1,48 @@
+package de.dion.eventmanager;
+
+import java.util.Arrays;
+
+/**
+ * Kopie der benutzten {@link DispatchTable}s, die nur einem Thread gehört.<br>
+ * <br>
+ * Beim callen wird nur die volatile Snapshot Referenz der {@link EventRegistry} gelesen<br>
+ * und mit der Referenz verglichen, aus der die Kopie stammt. Solange sich nichts geändert hat,<br>
+ * kommt die Tabelle aus einem kleinen Array, in das nur dieser Thread schreibt.<br>
+ * Nach einer Änderung am eventTree wird die Kopie verworfen und neu gefüllt.
+ * 
+ * @see EventManager#setThreadConfinedDispatch(boolean)
+ */
+final class LocalDispatchTables<T> {
+
+	/** Muss eine Zweierpotenz sein, bei einer Kollision wird der alte Eintrag überschrieben */
+	private static final int SIZE = 16;
+
+	private final EventRegistry<T> registry;
+	private final Class<?>[] classes = new Class<?>[SIZE];
+	private final DispatchTable<T>[] tables;
+	private DispatchCache<T> source;
+
+	@SuppressWarnings("unchecked")
+	LocalDispatchTables(EventRegistry<T> registry) {
+		this.registry = registry;
+		tables = (DispatchTable<T>[]) new DispatchTable<?>[SIZE];
+	}
+
+	DispatchTable<T> get(Class<?> eventClass) {
+		DispatchCache<T> current = registry.getSnapshot();
+		if (current != source) {
+			Arrays.fill(classes, null);
+			Arrays.fill(tables, null);
+			source = current;
+		}
+
+		int i = System.identityHashCode(eventClass) & (SIZE - 1);
+		if (classes[i] == eventClass) {
+			return tables[i];
+		}
+		DispatchTable<T> table = current.get(eventClass);
+		classes[i] = eventClass;
+		tables[i] = table;
+		return table;
+	}
+}
@@ -0,0 +1,100 @@
+package de.dion.eventmanager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Gibt Fehler aus Event Methoden aus, ohne bei einem dauerhaft fehlschlagenden Listener stderr zu fluten.<br>
+ * <br>
+ * Ein Fehler gilt als gleich, wenn Methode, Fehlerklasse und die Stelle an der er geworfen wurde übereinstimmen.<br>
+ * Der erste wird mit Stacktrace ausgegeben, Wiederholungen werden nur gezählt und höchstens<br>
+ * einmal pro Intervall als eine Zeile zusammengefasst.<br>
+ * Es werden höchstens {@value #MAX_ENTRIES} Fehler gemerkt, bei mehr wird der am längsten nicht mehr aufgetretene vergessen.
+ * 
+ * @see ListenerExceptionHandler#log()
+ */
+public class LoggingExceptionHandler implements ListenerExceptionHandler {
+
+	/** Verhindert dass sich bei ständig neuen Fehlern (und abgemeldeten Listenern) unbegrenzt Einträge ansammeln */
+	private static final int MAX_ENTRIES = 1_000;
+
+	private final long interval;
+	/** In Zugriffsreihenfolge, nur mit synchronized auf die Map benutzen */
+	private final Map<List<Object>, Entry> seen = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	public LoggingExceptionHandler() {
+		this(10_000);
+	}
+
+	/**
+	 * @param interval Millisekunden zwischen zwei Zusammenfassungen des selben Fehlers
+	 */
+	public LoggingExceptionHandler(long interval) {
+		if (interval < 0) {
+			throw new IllegalArgumentException("Das Intervall darf nicht negativ sein");
+		}
+		this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+	}
+
+	@Override
+	public void handle(CallObject<?> listener, Event event, Throwable error) {
+		StackTraceElement[] stack = error.getStackTrace();
+		List<Object> key = Arrays.asList(listener, error.getClass(), stack.length > 0 ? stack[0] : null);
+		long now = System.nanoTime();
+
+		Entry entry;
+		synchronized (seen) {
+			entry = seen.get(key);
+			if (entry == null) {
+				seen.put(key, new Entry(now));
+			}
+		}
+		if (entry == null) {
+			System.err.println("Fehler in " + (listener != null ? listener : "EventManager")
+					+ (event != null ? " bei " + event.getClass().getSimpleName() : "") + ":");
+			error.printStackTrace();
+			return;
+		}
+
+		entry.repeated.increment();
+		long last = entry.lastReport.get();
+		if (now - last >= interval && entry.lastReport.compareAndSet(last, now)) {
+			System.err.println("Fehler in " + (listener != null ? listener : "EventManager") + " "
+					+ entry.repeated.sumThenReset() + " mal wiederholt: " + error);
+		}
+	}
+
+	/**
+	 * Vergisst alle bisher ausgegebenen Fehler
+	 */
+	public void reset() {
+		synchronized (seen) {
+			seen.clear();
+		}
+	}
+
+	private static final class Entry {
+
+		final AtomicLong lastReport;
+		final LongAdder repeated = new LongAdder();
+
+		Entry(long now) {
+			lastReport = new AtomicLong(now);
+		}
+	}
+}
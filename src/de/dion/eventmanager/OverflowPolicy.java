@@ -0,0 +1,37 @@
+package de.dion.eventmanager;
+
+/**
+ * Legt fest was passiert, wenn die {@link EventQueue} einer Eventklasse voll ist.
+ * 
+ * @see EventManager#setAsyncQueue(Class, int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * Der aufrufende Thread wartet bis wieder Platz ist.<br>
+	 * Nicht aus einem Listener benutzen, der selbst in dieser Queue läuft.
+	 */
+	Block,
+
+	/**
+	 * Das älteste wartende Event wird verworfen
+	 */
+	DropOldest,
+
+	/**
+	 * Das neue Event wird verworfen
+	 */
+	DropNewest,
+
+	/**
+	 * Das neue Event wird direkt im aufrufenden Thread gecallt
+	 */
+	CallerRuns,
+
+	/**
+	 * Das neue Event wird an den Reject Callback gegeben,<br>
+	 * ohne Callback bekommt der Aufrufer eine RejectedExecutionException
+	 */
+	Reject
+
+}
@@ -0,0 +1,19 @@
+package de.dion.eventmanager;
+
+/**
+ * Events mit einem Partition Key (z.B. Spielername oder Session Id)<br>
+ * <br>
+ * Ist die Partitionierung im EventManager aktiv, werden alle Events mit dem<br>
+ * gleichen Key nacheinander auf dem selben Thread aufgerufen. Events mit<br>
+ * unterschiedlichen Keys laufen parallel.
+ * 
+ * @see EventManager#enablePartitioning(int)
+ */
+public interface Partitioned {
+
+	/**
+	 * @return Der Key nach dem verteilt wird, bei <code>null</code> wird das Event normal gecallt
+	 */
+	Object getPartitionKey();
+
+}
@@ -0,0 +1,173 @@
+package de.dion.eventmanager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Verteilt Events anhand ihres {@link Partitioned#getPartitionKey()} auf feste Lanes.<br>
+ * <br>
+ * Jede Lane ist ein einzelner Thread, dadurch bleiben Events mit dem selben Key<br>
+ * in ihrer Reihenfolge, während verschiedene Keys parallel laufen.<br>
+ * <br>
+ * Ist die Queue einer Lane voll, wartet der aufrufende Thread. Ein Thread einer Lane wartet nie,<br>
+ * er ruft das Event dann selbst auf, sonst könnten sich zwei volle Lanes gegenseitig blockieren.<br>
+ * Für dieses Event gilt die Reihenfolge seines Keys dann nicht.<br>
+ * Wird der wartende Thread unterbrochen, wird das Event verworfen statt an der Lane vorbei gecallt<br>
+ * und als RejectedExecutionException an <code>onError</code> gemeldet, das Interrupt Flag bleibt gesetzt.<br>
+ * <br>
+ * Fehler aus den Tasks bekommt ebenfalls <code>onError</code>, auf dem Thread der Lane.
+ * 
+ * @see EventManager#enablePartitioning(int, int)
+ */
+public class PartitionedDispatcher {
+
+	private final ExecutorService[] lanes;
+	private final Set<Thread> laneThreads = ConcurrentHashMap.newKeySet();
+	private final BiConsumer<Event, Throwable> onError;
+
+	/**
+	 * Ohne Begrenzung der wartenden Events
+	 */
+	public PartitionedDispatcher(int laneCount) {
+		this(laneCount, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param capacity Wie viele Events pro Lane warten dürfen
+	 */
+	public PartitionedDispatcher(int laneCount, int capacity) {
+		this(laneCount, capacity, (event, error) -> {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+		});
+	}
+
+	/**
+	 * @param onError Bekommt Fehler aus den Tasks und Events die beim Warten auf die Lane verworfen wurden
+	 */
+	public PartitionedDispatcher(int laneCount, int capacity, BiConsumer<Event, Throwable> onError) {
+		if (laneCount < 1) {
+			throw new IllegalArgumentException("Es wird mindestens eine Lane benötigt");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Die Queue braucht mindestens einen Platz");
+		}
+		this.onError = onError;
+		lanes = new ExecutorService[laneCount];
+		for (int i = 0; i < laneCount; i++) {
+			String name = "EventManager-Lane-" + (i + 1);
+			lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(capacity), r -> {
+				Thread thread = new Thread(() -> {
+					try {
+						r.run();
+					} finally {
+						laneThreads.remove(Thread.currentThread());
+					}
+				}, name);
+				thread.setDaemon(true);
+				laneThreads.add(thread);
+				return thread;
+			}, this::overflow);
+		}
+	}
+
+	/**
+	 * @param event Das Event des Tasks, für <code>onError</code>
+	 * @throws RejectedExecutionException wenn der Dispatcher schon beendet wurde
+	 */
+	public void dispatch(Object key, Event event, Runnable task) {
+		lanes[getLane(key)].execute(new LaneTask(event, task));
+	}
+
+	/**
+	 * Wie {@link #dispatch(Object, Event, Runnable)}
+	 * 
+	 * @return FALSE wenn der Dispatcher schon beendet wurde, der Task wurde dann nicht ausgeführt
+	 */
+	public boolean tryDispatch(Object key, Event event, Runnable task) {
+		try {
+			dispatch(key, event, task);
+			return true;
+		} catch (RejectedExecutionException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Die Lane ist beendet oder ihre Queue ist voll
+	 */
+	private void overflow(Runnable task, ThreadPoolExecutor lane) {
+		if (lane.isShutdown()) {
+			throw new RejectedExecutionException("Die Lane wurde bereits beendet");
+		}
+		if (laneThreads.contains(Thread.currentThread())) {
+			task.run();
+			return;
+		}
+		try {
+			lane.getQueue().put(task);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			onError.accept(((LaneTask) task).event,
+					new RejectedExecutionException("Beim Warten auf die Lane unterbrochen, das Event wurde verworfen", ex));
+			return;
+		}
+		// Wurde die Lane währenddessen beendet, holt ihr Thread den Task eventuell nicht mehr ab
+		if (lane.isShutdown() && lane.remove(task)) {
+			throw new RejectedExecutionException("Die Lane wurde bereits beendet");
+		}
+	}
+
+	/**
+	 * Gibt den Index der Lane für den Key zurück
+	 */
+	public int getLane(Object key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return Math.floorMod(hash, lanes.length);
+	}
+
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * Arbeitet alle wartenden Events noch ab und beendet dann die Lanes
+	 */
+	public void shutdown() throws InterruptedException {
+		for (ExecutorService lane : lanes) {
+			lane.shutdown();
+		}
+		for (ExecutorService lane : lanes) {
+			lane.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private final class LaneTask implements Runnable {
+
+		final Event event;
+		final Runnable task;
+
+		LaneTask(Event event, Runnable task) {
+			this.event = event;
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				task.run();
+			} catch (Throwable ex) {
+				onError.accept(event, ex);
+			}
+		}
+	}
+}
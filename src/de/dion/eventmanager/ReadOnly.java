@@ -0,0 +1,30 @@
+package de.dion.eventmanager;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Die Event Methode schaut sich das Event nur an und verändert es nicht (Logging, Metriken, Audit)<br>
+ * <br>
+ * Solche Methoden laufen erst nachdem alle anderen Methoden der Priorität nach fertig sind<br>
+ * und nur wenn das Event danach weder gecancelt noch unterbrochen ist. Sie sehen also den endgültigen Zustand.<br>
+ * Mit {@link EventManager#setObserverExecutor(java.util.concurrent.Executor, boolean)} laufen sie<br>
+ * alle gleichzeitig auf dem Executor, ohne den aufrufenden Thread aufzuhalten. Sonst laufen sie<br>
+ * nacheinander im aufrufenden Thread.<br>
+ * <br>
+ * Beispiel:
+ * <pre>
+ * {@literal @}ReadOnly
+ * {@literal @}EventHandler
+ * public void logChat(PlayerChatEvent e) {}
+ * </pre>
+ * 
+ * @see EventManager#setObserverExecutor(java.util.concurrent.Executor, boolean)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+
+}
@@ -0,0 +1,221 @@
+package de.dion.eventmanager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Event Bus nach dem Vorbild des LMAX Disruptor.<br>
+ * <br>
+ * Producer schreiben ihre Events nur in einen vorher angelegten Ring und kehren<br>
+ * sofort zurück, die Listener laufen auf den Consumer Threads. Jeder Consumer hat<br>
+ * seinen eigenen Ring. Ein Producer Thread schreibt immer in den selben Ring,<br>
+ * dadurch bleibt die Reihenfolge seiner Events erhalten.<br>
+ * <br>
+ * Ein Producer wartet nur dann (nach der {@link WaitStrategy}), wenn sein Ring voll ist.<br>
+ * Ein Consumer Thread wartet nie, denn seinen Ring kann nur er selbst leeren: Callt ein Listener<br>
+ * ein Event und der Ring ist voll, wird es direkt auf dem Consumer Thread abgearbeitet.<br>
+ * <br>
+ * Beim Beenden wird jeder Ring per CAS auf die Sequenz geschlossen, bis zu der Producer bereits<br>
+ * Plätze geholt haben. Danach bekommt kein Producer mehr einen Platz und der Consumer arbeitet<br>
+ * genau bis zu dieser Sequenz ab, es geht also kein Event verloren und kein Producer wartet ewig.
+ * 
+ * @see EventManager#enableRingBuffer(int, int, WaitStrategy)
+ */
+public class RingBufferDispatcher {
+
+	/** Wird beim Schließen in claimed gesetzt, die restlichen Bits sind die letzte vergebene Sequenz */
+	private static final long CLOSED = Long.MIN_VALUE;
+
+	private final Ring[] rings;
+	private final Thread[] consumers;
+	private final Consumer<Event> handler;
+
+	/**
+	 * @param bufferSize Größe jedes Rings, muss eine Zweierpotenz sein
+	 * @param consumerCount Anzahl der Consumer Threads
+	 * @param waitStrategy Wie gewartet wird wenn ein Ring leer oder voll ist
+	 * @param handler Wird auf dem Consumer Thread für jedes Event aufgerufen
+	 */
+	public RingBufferDispatcher(int bufferSize, int consumerCount, WaitStrategy waitStrategy, Consumer<Event> handler) {
+		this(bufferSize, consumerCount, waitStrategy, handler, (event, error) -> {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+		});
+	}
+
+	/**
+	 * @param onError Bekommt Fehler die aus dem handler fliegen, auf dem Consumer Thread
+	 */
+	public RingBufferDispatcher(int bufferSize, int consumerCount, WaitStrategy waitStrategy, Consumer<Event> handler,
+			BiConsumer<Event, Throwable> onError) {
+		if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("bufferSize muss eine Zweierpotenz sein: " + bufferSize);
+		}
+		if (consumerCount < 1) {
+			throw new IllegalArgumentException("consumerCount muss mindestens 1 sein");
+		}
+
+		this.handler = handler;
+		rings = new Ring[consumerCount];
+		consumers = new Thread[consumerCount];
+		for (int i = 0; i < consumerCount; i++) {
+			Ring ring = new Ring(bufferSize, waitStrategy);
+			rings[i] = ring;
+			consumers[i] = new Thread(() -> ring.consume(handler, onError), "EventManager-Ring-" + (i + 1));
+			consumers[i].setDaemon(true);
+			consumers[i].start();
+		}
+	}
+
+	/**
+	 * Schreibt das Event in den Ring des aktuellen Threads
+	 * 
+	 * @throws IllegalStateException wenn der Dispatcher schon beendet wurde
+	 */
+	public void publish(Event event) {
+		if (!tryPublish(event)) {
+			throw new IllegalStateException("Der RingBufferDispatcher wurde bereits beendet");
+		}
+	}
+
+	/**
+	 * Wie {@link #publish(Event)}. Auf einem Consumer Thread wird bei vollem Ring nicht gewartet,<br>
+	 * sondern das Event direkt abgearbeitet.
+	 * 
+	 * @return FALSE wenn der Dispatcher schon beendet wurde, das Event wurde dann nicht geschrieben
+	 */
+	public boolean tryPublish(Event event) {
+		Thread thread = Thread.currentThread();
+		Ring ring = rings[(int) (thread.getId() % rings.length)];
+		if (!isConsumer(thread)) {
+			return ring.publish(event, true);
+		}
+		if (!ring.publish(event, false)) {
+			if (ring.isClosed()) {
+				return false;
+			}
+			handler.accept(event);
+		}
+		return true;
+	}
+
+	private boolean isConsumer(Thread thread) {
+		for (Thread consumer : consumers) {
+			if (consumer == thread) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Anzahl der Events die geschrieben, aber noch nicht abgearbeitet wurden
+	 */
+	public long getBacklog() {
+		long backlog = 0;
+		for (Ring ring : rings) {
+			backlog += (ring.claimed.get() & ~CLOSED) - ring.consumed;
+		}
+		return backlog;
+	}
+
+	/**
+	 * Arbeitet alle bereits geschriebenen Events noch ab und beendet dann die Consumer
+	 */
+	public void shutdown() throws InterruptedException {
+		for (Ring ring : rings) {
+			ring.close();
+		}
+		for (Thread consumer : consumers) {
+			consumer.join();
+		}
+	}
+
+	private class Ring {
+
+		private final Event[] slots;
+		private final AtomicLongArray published;
+		private final int mask;
+		private final WaitStrategy waitStrategy;
+
+		/** Nächste freie Sequenz für Producer, mit {@link #CLOSED} wenn der Ring geschlossen ist */
+		private final AtomicLong claimed = new AtomicLong();
+		/** Nächste Sequenz die der Consumer lesen wird */
+		private volatile long consumed;
+
+		Ring(int size, WaitStrategy waitStrategy) {
+			this.slots = new Event[size];
+			this.published = new AtomicLongArray(size);
+			this.mask = size - 1;
+			this.waitStrategy = waitStrategy;
+
+			for (int i = 0; i < size; i++) {
+				published.set(i, -1);
+			}
+		}
+
+		/**
+		 * @param wait FALSE wenn bei vollem Ring nicht gewartet werden soll
+		 * @return FALSE wenn der Ring geschlossen ist oder (ohne wait) voll
+		 */
+		boolean publish(Event event, boolean wait) {
+			long sequence;
+			do {
+				sequence = claimed.get();
+				if ((sequence & CLOSED) != 0) {
+					return false;
+				}
+				if (!wait && sequence - slots.length >= consumed) {
+					return false;
+				}
+			} while (!claimed.compareAndSet(sequence, sequence + 1));
+
+			while (sequence - slots.length >= consumed) {
+				waitStrategy.idle();
+			}
+			int index = (int) (sequence & mask);
+			slots[index] = event;
+			// Die Sequenz wird erst nach dem Event geschrieben (release), der Consumer liest sie volatile
+			published.lazySet(index, sequence);
+			return true;
+		}
+
+		boolean isClosed() {
+			return (claimed.get() & CLOSED) != 0;
+		}
+
+		void close() {
+			long sequence;
+			do {
+				sequence = claimed.get();
+			} while ((sequence & CLOSED) == 0 && !claimed.compareAndSet(sequence, sequence | CLOSED));
+		}
+
+		void consume(Consumer<Event> handler, BiConsumer<Event, Throwable> onError) {
+			long next = 0;
+			while (true) {
+				int index = (int) (next & mask);
+				if (published.get(index) == next) {
+					Event event = slots[index];
+					slots[index] = null;
+					try {
+						handler.accept(event);
+					} catch (Throwable ex) {
+						onError.accept(event, ex);
+					}
+					next++;
+					consumed = next;
+				} else if (claimed.get() == (next | CLOSED)) {
+					// Geschlossen und alle vergebenen Sequenzen sind abgearbeitet
+					return;
+				} else {
+					waitStrategy.idle();
+				}
+			}
+		}
+	}
+}
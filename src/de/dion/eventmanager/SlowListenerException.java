@@ -0,0 +1,34 @@
+package de.dion.eventmanager;
+
+/**
+ * Wird vom {@link ListenerWatchdog} ausgegeben, wenn eine Event Methode ihr Zeitbudget überschreitet.<br>
+ * <br>
+ * Hängt die Methode noch, ist der Stacktrace der des Threads in dem sie gerade läuft.
+ *
+ * @see EventHandler#timeBudget()
+ */
+public class SlowListenerException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient CallObject<?> callObject;
+	private final long nanos;
+
+	public SlowListenerException(CallObject<?> callObject, long nanos, long budgetNanos, boolean running) {
+		super(callObject + (running ? " läuft seit " : " brauchte ") + nanos / 1_000_000 + "ms (Budget "
+				+ budgetNanos / 1_000_000 + "ms, " + callObject.getBudgetViolations() + ". Überschreitung)");
+		this.callObject = callObject;
+		this.nanos = nanos;
+	}
+
+	public CallObject<?> getCallObject() {
+		return callObject;
+	}
+
+	/**
+	 * Wie lange die Methode bis zur Meldung gebraucht hat
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+}
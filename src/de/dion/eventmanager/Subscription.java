@@ -0,0 +1,51 @@
+package de.dion.eventmanager;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wird von {@link EventManager#registerEvents} zurückgegeben.<br>
+ * <br>
+ * Damit lassen sich genau die Event Methoden wieder abmelden,<br>
+ * die bei diesem Aufruf registriert wurden.<br>
+ * <br>
+ * Beispiel:<br>
+ * <code>
+ * Subscription sub = eventManager.registerEvents(new ChatListener());<br>
+ * ...<br>
+ * sub.unregister();
+ * </code>
+ */
+public class Subscription {
+
+	private final EventRegistry<?> registry;
+	private final List<? extends CallObject<?>> callObjects;
+	private volatile boolean active = true;
+
+	Subscription(EventRegistry<?> registry, List<? extends CallObject<?>> callObjects) {
+		this.registry = registry;
+		this.callObjects = Collections.unmodifiableList(callObjects);
+	}
+
+	/**
+	 * Meldet alle Event Methoden dieser Registrierung ab.<br>
+	 * Mehrfaches Aufrufen hat keine Wirkung.
+	 */
+	public void unregister() {
+		if (active) {
+			active = false;
+			registry.unregister(callObjects);
+		}
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Die bei dieser Registrierung neu eingetragenen Event Methoden
+	 */
+	public List<? extends CallObject<?>> getCallObjects() {
+		return callObjects;
+	}
+}
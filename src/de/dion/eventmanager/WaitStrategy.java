@@ -0,0 +1,47 @@
+package de.dion.eventmanager;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Legt fest wie die Threads des {@link RingBufferDispatcher} warten,<br>
+ * wenn der Ring leer (Consumer) oder voll (Producer) ist.
+ * 
+ * @see EventManager#enableRingBuffer(int, int, WaitStrategy)
+ */
+public enum WaitStrategy {
+
+	/**
+	 * Niedrigste Latenz, belegt aber dauerhaft einen Prozessorkern pro Consumer
+	 */
+	BusySpin {
+		@Override
+		void idle() {
+			Thread.onSpinWait();
+		}
+	},
+
+	/**
+	 * Gibt die CPU an andere Threads ab, bleibt aber lauffähig
+	 */
+	Yield {
+		@Override
+		void idle() {
+			Thread.yield();
+		}
+	},
+
+	/**
+	 * Legt den Thread kurz schlafen, spart CPU auf Kosten der Latenz
+	 */
+	Park {
+		@Override
+		void idle() {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+	};
+
+	private static final long PARK_NANOS = 50_000;
+
+	abstract void idle();
+
+}
@@ -1,14 +1,36 @@
 package de.dion.eventmanager.events;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import de.dion.eventmanager.Cancelable;
 import de.dion.eventmanager.Interruptable;
 
+/**
+ * Basisklasse aller Events.<br>
+ * <br>
+ * Speichermodell:<br>
+ * Canceled und Interrupted sind volatile. Ein Thread, der ein asynchrones Event gecallt hat,<br>
+ * sieht also sofort was die Listener auf einem anderen Thread gesetzt haben, und umgekehrt<br>
+ * stoppt ein {@link #interrupt()} von auen den nchsten Listener.<br>
+ * Alles was vor dem callen in das Event geschrieben wurde, sehen die Listener auch auf dem Executor,<br>
+ * da die bergabe an den Executor, den Ring Buffer oder eine Partition eine happens-before Beziehung bildet.<br>
+ * Die Fehlerliste ({@link #addError(Throwable)}, {@link #getErrors()}) ist synchronisiert und darf auch von<br>
+ * gleichzeitig laufenden Listenern benutzt werden.<br>
+ * Andere Felder (auch die der Unterklassen) sind nicht synchronisiert. Sie drfen nur von Listenern geschrieben werden,<br>
+ * die nacheinander laufen. {@link de.dion.eventmanager.EventHandler#concurrent()} Methoden einer Stufe und<br>
+ * {@link de.dion.eventmanager.ReadOnly} Methoden mit Executor laufen gleichzeitig und drfen sie nur lesen.<br>
+ * Nach dem Abschluss von {@link de.dion.eventmanager.EventManager#callAsync(Event)} sind alle Felder<br>
+ * im Future sicher lesbar.
+ */
 public class Event {
 
-	private boolean canceled = false;
+	private volatile boolean canceled = false;
 	private boolean asynchronous = false;
-	private boolean interrupted;
+	private volatile boolean interrupted;
 	private String info;
+	private List<Throwable> errors;
 
 	protected Event() {
 	}
@@ -74,4 +96,40 @@ public class Event {
 		return info != null;
 	}
 
+	/**
+	 * Wird von {@link de.dion.eventmanager.ListenerExceptionHandler#collect()} mit den Fehlern der Listener aufgerufen
+	 */
+	public synchronized void addError(Throwable error) {
+		if (errors == null) {
+			errors = new ArrayList<>(1);
+		}
+		errors.add(error);
+	}
+
+	/**
+	 * Kopie der gesammelten Fehler der Listener, siehe {@link de.dion.eventmanager.ListenerExceptionHandler#collect()}
+	 */
+	public synchronized List<Throwable> getErrors() {
+		return errors == null ? Collections.<Throwable>emptyList() : Collections.unmodifiableList(new ArrayList<>(errors));
+	}
+
+	public synchronized boolean hasErrors() {
+		return errors != null && !errors.isEmpty();
+	}
+
+	/**
+	 * Setzt den Zustand vom callen zurck, damit das Event wiederverwendet werden kann.<br>
+	 * Info und Asynchronous bleiben, da sie zur Eventklasse gehren.<br>
+	 * Events mit eigenen Feldern berschreiben die Methode und rufen <code>super.reset()</code> auf.
+	 * 
+	 * @see de.dion.eventmanager.EventPool
+	 */
+	public void reset() {
+		canceled = false;
+		interrupted = false;
+		synchronized (this) {
+			errors = null;
+		}
+	}
+
 }
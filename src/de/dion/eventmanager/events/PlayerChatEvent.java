@@ -2,10 +2,11 @@ package de.dion.eventmanager.events;
 
 import de.dion.eventmanager.Cancelable;
 import de.dion.eventmanager.Interruptable;
+import de.dion.eventmanager.Partitioned;
 
-public class PlayerChatEvent extends Event implements Cancelable, Interruptable {
+public class PlayerChatEvent extends Event implements Cancelable, Interruptable, Partitioned {
 
-	private final String sender;
+	private String sender;
 	private String message;
 
 	/**
@@ -20,6 +21,22 @@ public class PlayerChatEvent extends Event implements Cancelable, Interruptable
 		setAsynchronous(false);
 	}
 
+	/**
+	 * Leeres Event fr einen {@link de.dion.eventmanager.EventPool}, wird mit {@link #init(String, String)} gefllt
+	 */
+	public PlayerChatEvent() {
+		this(null, null);
+	}
+
+	/**
+	 * Fllt ein Event aus dem Pool
+	 */
+	public PlayerChatEvent init(String sender, String message) {
+		this.sender = sender;
+		this.message = message;
+		return this;
+	}
+
 	/**
 	 * {@link #getSender()} berladen
 	 */
@@ -39,4 +56,19 @@ public class PlayerChatEvent extends Event implements Cancelable, Interruptable
 		this.message = message;
 	}
 
+	/**
+	 * Chat Events vom selben Spieler bleiben in ihrer Reihenfolge
+	 */
+	@Override
+	public Object getPartitionKey() {
+		return sender;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		sender = null;
+		message = null;
+	}
+
 }
@@ -3,12 +3,15 @@ package de.dion.eventmanager.example;
 import java.io.IOException;
 
 import de.dion.eventmanager.EventManager;
+import de.dion.eventmanager.EventPool;
 import de.dion.eventmanager.events.Event;
 import de.dion.eventmanager.events.PlayerChatEvent;
-import de.dion.eventmanager.utils.ClassHelper;
+import de.dion.eventmanager.utils.ClassPathScanner;
 
 public class ExampleMain {
 
+	static EventPool<PlayerChatEvent> chatPool = new EventPool<>(PlayerChatEvent::new);
+
 	static EventManager<Object> em1 = new EventManager<Object>() {
 
 		@Override
@@ -35,19 +38,16 @@ public class ExampleMain {
 		// Mglichkeit 1
 		ChatListener listener = new ChatListener();
 		em1.registerEvents(listener);
-		em1.sortEvents();
 
 		// Mglichkeit 2
 		em2.registerEvents(ChatListener.class);
-		em2.sortEvents();
 
 		// Mglichkeit 3
 		try {
-			em3.registerEvents(ClassHelper.getClasses("de.dion.eventmanager.example"));
+			em3.registerEvents(ClassPathScanner.getListenerClasses("de.dion.eventmanager.example"));
 		} catch (ClassNotFoundException | IOException e) {
 			e.printStackTrace();
 		}
-		em3.sortEvents();
 		
 		
 		//EventTree anzeigen
@@ -60,11 +60,15 @@ public class ExampleMain {
 	}
 	
 	public static void chat(String name, String message) {
-		PlayerChatEvent e = new PlayerChatEvent(name, message);
-		call(e);
-		
-		if (!e.isCanceled()) {
-			System.out.println(name + " -> " + e.getMessage());
+		PlayerChatEvent e = chatPool.acquire().init(name, message);
+		try {
+			call(e);
+			
+			if (!e.isCanceled()) {
+				System.out.println(name + " -> " + e.getMessage());
+			}
+		} finally {
+			chatPool.release(e);
 		}
 	}
 
@@ -0,0 +1,65 @@
+package de.dion.eventmanager.metrics;
+
+import java.util.List;
+
+import de.dion.eventmanager.CallObject;
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Schreibt für jeden Aufruf einer Event Methode ein {@link ListenerInvocationEvent}<br>
+ * in den Java Flight Recorder. Ist die Aufnahme des Events nicht aktiv, kostet das<br>
+ * nur eine Abfrage.<br>
+ * <br>
+ * Beispiel:<br>
+ * <code>java -XX:StartFlightRecording=filename=events.jfr ...</code>
+ */
+public class JfrMetricsRecorder implements MetricsRecorder {
+
+	private final MetricsRecorder delegate;
+
+	public JfrMetricsRecorder() {
+		this(null);
+	}
+
+	/**
+	 * @param delegate Bekommt die Messwerte zusätzlich, z.B. {@link ListenerMetrics}
+	 */
+	public JfrMetricsRecorder(MetricsRecorder delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void eventDispatched(Class<? extends Event> eventClass, int listeners) {
+		if (delegate != null) {
+			delegate.eventDispatched(eventClass, listeners);
+		}
+	}
+
+	@Override
+	public void listenerInvoked(CallObject<?> co, long nanos, boolean failed) {
+		if (delegate != null) {
+			delegate.listenerInvoked(co, nanos, failed);
+		}
+
+		ListenerInvocationEvent event = new ListenerInvocationEvent();
+		if (event.isEnabled()) {
+			event.eventClass = co.getEventClass();
+			event.listenerClass = co.getDeclaringClass();
+			event.method = co.getName();
+			event.nanos = nanos;
+			event.failed = failed;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void listenersRemoved(List<CallObject<?>> callObjects) {
+		if (delegate != null) {
+			delegate.listenersRemoved(callObjects);
+		}
+	}
+
+	public MetricsRecorder getDelegate() {
+		return delegate;
+	}
+}
@@ -0,0 +1,119 @@
+package de.dion.eventmanager.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramm für Laufzeiten in Nanosekunden, ähnlich wie HdrHistogram.<br>
+ * <br>
+ * Die Buckets sind logarithmisch (eine Gruppe pro Zweierpotenz) und jede Gruppe<br>
+ * ist in {@value #SUB_BUCKETS} lineare Buckets unterteilt, der Fehler liegt also<br>
+ * unter 1/{@value #SUB_BUCKETS}. {@link #record(long)} allokiert nichts und braucht keinen Lock.<br>
+ * Die Summe ist ein {@link LongAdder}, da sie bei jedem Aufruf von allen Threads geschrieben wird.<br>
+ * Die Anzahl wird erst beim Lesen aus den Buckets zusammengezählt.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts.incrementAndGet(indexOf(nanos));
+		total.add(nanos);
+
+		long current = max.get();
+		while (nanos > current && !max.compareAndSet(current, nanos)) {
+			current = max.get();
+		}
+	}
+
+	public long getCount() {
+		long n = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			n += counts.get(i);
+		}
+		return n;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : (double) total.sum() / n;
+	}
+
+	/**
+	 * @param percentile z.B. 99.9
+	 * @return Obere Grenze des Buckets in dem das Perzentil liegt, in Nanosekunden
+	 */
+	public long getPercentile(double percentile) {
+		long n = getCount();
+		if (n == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(upperBound(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		total.reset();
+		max.set(0);
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long upperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long sub = index % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("p50=%s p99=%s p99.9=%s max=%s", format(getPercentile(50)), format(getPercentile(99)),
+				format(getPercentile(99.9)), format(getMax()));
+	}
+
+	static String format(long nanos) {
+		if (nanos < TimeUnit.MICROSECONDS.toNanos(10)) {
+			return nanos + "ns";
+		}
+		if (nanos < TimeUnit.MILLISECONDS.toNanos(10)) {
+			return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+		}
+		return TimeUnit.NANOSECONDS.toMillis(nanos) + "ms";
+	}
+}
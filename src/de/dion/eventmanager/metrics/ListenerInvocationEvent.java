@@ -0,0 +1,36 @@
+package de.dion.eventmanager.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR Event für den Aufruf einer Event Methode
+ * 
+ * @see JfrMetricsRecorder
+ */
+@Name("de.dion.eventmanager.ListenerInvocation")
+@Label("Listener Invocation")
+@Category("EventManager")
+@Description("Aufruf einer @EventHandler Methode")
+public class ListenerInvocationEvent extends jdk.jfr.Event {
+
+	@Label("Event Class")
+	Class<?> eventClass;
+
+	@Label("Listener Class")
+	Class<?> listenerClass;
+
+	@Label("Method")
+	String method;
+
+	@Label("Duration")
+	@Timespan(Timespan.NANOSECONDS)
+	long nanos;
+
+	@Label("Failed")
+	boolean failed;
+
+}
@@ -0,0 +1,92 @@
+package de.dion.eventmanager.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.dion.eventmanager.CallObject;
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Eingebauter {@link MetricsRecorder}.<br>
+ * <br>
+ * Zählt pro Event Methode Aufrufe, Fehler und die Laufzeit als {@link LatencyHistogram}<br>
+ * und pro Eventklasse wie oft sie gecallt wurde. Nach dem ersten Aufruf einer Methode<br>
+ * wird beim Messen nichts mehr allokiert, die Messwerte liegen dann direkt am {@link CallObject}.<br>
+ * Messwerte abgemeldeter Methoden werden entfernt.<br>
+ * <br>
+ * Beispiel:<br>
+ * <code>
+ * ListenerMetrics metrics = new ListenerMetrics();<br>
+ * eventManager.setMetricsRecorder(metrics);<br>
+ * ...<br>
+ * eventManager.printEventTree(); // enthält jetzt die Messwerte
+ * </code>
+ */
+public class ListenerMetrics implements MetricsRecorder {
+
+	private final Map<CallObject<?>, ListenerStats> listeners = new ConcurrentHashMap<>();
+	private final Map<Class<? extends Event>, LongAdder> dispatches = new ConcurrentHashMap<>();
+	/**
+	 * Wechselt bei {@link #reset()}, am CallObject liegende Messwerte einer anderen Generation<br>
+	 * (oder eines anderen Recorders) werden ignoriert
+	 */
+	private volatile Object generation = new Object();
+
+	@Override
+	public void eventDispatched(Class<? extends Event> eventClass, int listenerCount) {
+		LongAdder count = dispatches.get(eventClass);
+		if (count == null) {
+			count = dispatches.computeIfAbsent(eventClass, cl -> new LongAdder());
+		}
+		count.increment();
+	}
+
+	@Override
+	public void listenerInvoked(CallObject<?> co, long nanos, boolean failed) {
+		Object data = co.getRecorderData();
+		Object owner = generation;
+		ListenerStats stats;
+		if (data instanceof ListenerStats && ((ListenerStats) data).owner == owner) {
+			stats = (ListenerStats) data;
+		} else {
+			stats = listeners.compute(co, (key, old) -> old != null && old.owner == owner ? old : new ListenerStats(owner));
+			co.setRecorderData(stats);
+		}
+		stats.record(nanos, failed);
+	}
+
+	@Override
+	public void listenersRemoved(List<CallObject<?>> callObjects) {
+		for (CallObject<?> co : callObjects) {
+			listeners.remove(co);
+		}
+	}
+
+	/**
+	 * @return Die Messwerte der Methode oder <code>null</code> wenn sie noch nie aufgerufen wurde
+	 */
+	public ListenerStats getStats(CallObject<?> co) {
+		return listeners.get(co);
+	}
+
+	/**
+	 * Wie oft die Eventklasse gecallt wurde
+	 */
+	public long getDispatchCount(Class<?> eventClass) {
+		LongAdder count = dispatches.get(eventClass);
+		return count == null ? 0 : count.sum();
+	}
+
+	public Map<CallObject<?>, ListenerStats> getAllStats() {
+		return Collections.unmodifiableMap(listeners);
+	}
+
+	public void reset() {
+		generation = new Object();
+		listeners.clear();
+		dispatches.clear();
+	}
+}
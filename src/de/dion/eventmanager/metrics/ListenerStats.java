@@ -0,0 +1,46 @@
+package de.dion.eventmanager.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Messwerte einer einzelnen Event Methode
+ * 
+ * @see ListenerMetrics
+ */
+public class ListenerStats {
+
+	final Object owner;
+	private final LongAdder errors = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	/**
+	 * @param owner Generation der {@link ListenerMetrics}, zu der die Messwerte gehören
+	 */
+	ListenerStats(Object owner) {
+		this.owner = owner;
+	}
+
+	void record(long nanos, boolean failed) {
+		if (failed) {
+			errors.increment();
+		}
+		latency.record(nanos);
+	}
+
+	public long getInvocations() {
+		return latency.getCount();
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	@Override
+	public String toString() {
+		return "calls=" + getInvocations() + " errors=" + getErrors() + " " + latency;
+	}
+}
@@ -0,0 +1,41 @@
+package de.dion.eventmanager.metrics;
+
+import java.util.List;
+
+import de.dion.eventmanager.CallObject;
+import de.dion.eventmanager.events.Event;
+
+/**
+ * Bekommt vom EventManager die Messwerte jedes Aufrufs.<br>
+ * <br>
+ * Wird auf dem Thread des Events aufgerufen, Implementierungen sollten also<br>
+ * schnell sein und möglichst nichts allokieren.
+ * 
+ * @see de.dion.eventmanager.EventManager#setMetricsRecorder(MetricsRecorder)
+ * @see ListenerMetrics
+ * @see JfrMetricsRecorder
+ */
+public interface MetricsRecorder {
+
+	/**
+	 * Ein Event wurde gecallt
+	 * 
+	 * @param listeners Anzahl der Listener in der Dispatch Tabelle
+	 */
+	void eventDispatched(Class<? extends Event> eventClass, int listeners);
+
+	/**
+	 * Eine Event Methode wurde aufgerufen
+	 * 
+	 * @param nanos Dauer des Aufrufs
+	 * @param failed TRUE wenn die Methode eine Exception geworfen hat
+	 */
+	void listenerInvoked(CallObject<?> co, long nanos, boolean failed);
+
+	/**
+	 * Die Event Methoden wurden abgemeldet, Messwerte die zu ihnen gehören können entfernt werden
+	 */
+	default void listenersRemoved(List<CallObject<?>> callObjects) {
+	}
+
+}
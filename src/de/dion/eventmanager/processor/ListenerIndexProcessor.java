@@ -0,0 +1,348 @@
+package de.dion.eventmanager.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import de.dion.eventmanager.Batch;
+import de.dion.eventmanager.CallAlways;
+import de.dion.eventmanager.EventHandler;
+import de.dion.eventmanager.ListenerIndex;
+import de.dion.eventmanager.ListenerIndexes;
+import de.dion.eventmanager.ReadOnly;
+
+/**
+ * Sucht zur Compilezeit alle Methoden mit {@link EventHandler} und erzeugt pro Listener Klasse<br>
+ * einen {@link ListenerIndex} mit direkten Aufrufern. Zusätzlich wird die Liste aller<br>
+ * Listener Klassen nach {@link ListenerIndexes#RESOURCE} geschrieben.<br>
+ * <br>
+ * Einbinden z.B. mit <code>javac -processorpath eventmanager.jar ...</code><br>
+ * Klassen die nicht indexiert werden können (z.B. private Klassen) werden zur Laufzeit<br>
+ * wie bisher per Reflection durchsucht.
+ */
+@SupportedAnnotationTypes("de.dion.eventmanager.EventHandler")
+public class ListenerIndexProcessor extends AbstractProcessor {
+
+	private static final String EVENT_CLASS = "de.dion.eventmanager.events.Event";
+	/** Interfaces aus diesen Packages sind keine Event Typen, wie in EventTypes zur Laufzeit */
+	private static final String[] JDK_PACKAGES = { "java.", "javax.", "jdk.", "sun." };
+	private static final String TAB = "\t";
+
+	private final Set<String> indexedClasses = new LinkedHashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeResource();
+			return false;
+		}
+
+		Map<TypeElement, Boolean> listeners = new LinkedHashMap<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(EventHandler.class)) {
+			Element owner = element.getEnclosingElement();
+			if (element.getKind() == ElementKind.METHOD && owner instanceof TypeElement) {
+				listeners.put((TypeElement) owner, Boolean.TRUE);
+			}
+		}
+
+		for (TypeElement listener : listeners.keySet()) {
+			if (isIndexable(listener) && hasIndexableFilters(listener)) {
+				writeIndex(listener);
+			}
+		}
+		return false;
+	}
+
+	private void writeIndex(TypeElement listener) {
+		List<String> handlers = new ArrayList<>();
+		for (Element member : processingEnv.getElementUtils().getAllMembers(listener)) {
+			if (member.getKind() == ElementKind.METHOD && member.getAnnotation(EventHandler.class) != null) {
+				String handler = createHandler(listener, (ExecutableElement) member);
+				if (handler != null) {
+					handlers.add(handler);
+				}
+			}
+		}
+
+		String binaryName = processingEnv.getElementUtils().getBinaryName(listener).toString();
+		String indexName = ListenerIndexes.getIndexName(binaryName);
+		String packageName = getPackage(listener).getQualifiedName().toString();
+		String simpleName = indexName.substring(indexName.lastIndexOf('.') + 1);
+		String listenerType = erasure(listener.asType());
+
+		StringBuilder out = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			out.append("package ").append(packageName).append(";\n\n");
+		}
+		out.append("/**\n * Generiert vom ListenerIndexProcessor, nicht bearbeiten!\n */\n");
+		out.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+		out.append("public final class ").append(simpleName).append(" implements de.dion.eventmanager.ListenerIndex {\n\n");
+		out.append(TAB).append("@Override\n");
+		out.append(TAB).append("public Class<?> getListenerClass() {\n");
+		out.append(TAB).append(TAB).append("return ").append(listenerType).append(".class;\n");
+		out.append(TAB).append("}\n\n");
+		out.append(TAB).append("@Override\n");
+		out.append(TAB).append("public java.util.List<de.dion.eventmanager.IndexedHandler> getHandlers() {\n");
+		out.append(TAB).append(TAB).append("return java.util.Arrays.asList(");
+		for (int i = 0; i < handlers.size(); i++) {
+			out.append(i == 0 ? "\n" : ",\n").append(handlers.get(i));
+		}
+		out.append(");\n");
+		out.append(TAB).append("}\n");
+		out.append("}\n");
+
+		try (Writer writer = processingEnv.getFiler().createSourceFile(indexName, listener).openWriter()) {
+			writer.write(out.toString());
+			indexedClasses.add(binaryName);
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Index konnte nicht geschrieben werden: " + ex, listener);
+		}
+	}
+
+	/**
+	 * Erzeugt den Code für einen IndexedHandler oder <code>null</code> wenn die Methode kein Event bekommt
+	 */
+	private String createHandler(TypeElement listener, ExecutableElement method) {
+		if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getParameters().size() != 1) {
+			return null;
+		}
+
+		boolean batch = method.getAnnotation(Batch.class) != null;
+		TypeMirror paramType = method.getParameters().get(0).asType();
+		TypeMirror eventType = batch ? getListElement(paramType) : paramType;
+		if (eventType == null || !isEventType(eventType)) {
+			return null;
+		}
+
+		boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+		String owner = erasure(method.getEnclosingElement().asType());
+		String listenerType = erasure(listener.asType());
+		String name = method.getSimpleName().toString();
+		String eventClass = erasure(eventType);
+		EventHandler anno = method.getAnnotation(EventHandler.class);
+
+		String receiver = isStatic ? owner : "((" + listenerType + ") listener)";
+		String argument = batch ? "(java.util.List) events" : "(" + eventClass + ") event";
+
+		StringBuilder out = new StringBuilder();
+		String indent = TAB + TAB + TAB;
+		out.append(indent).append("new de.dion.eventmanager.IndexedHandler(\"").append(name).append("\", ")
+				.append(owner).append(".class, ").append(eventClass).append(".class, ").append(isStatic).append(")");
+		out.append("\n").append(indent).append(TAB).append(".priority(de.dion.eventmanager.Priority.").append(anno.value()).append(")");
+		if (method.getAnnotation(CallAlways.class) != null) {
+			out.append("\n").append(indent).append(TAB).append(".callAlways(true)");
+		}
+		if (anno.timeBudget() > 0) {
+			out.append("\n").append(indent).append(TAB).append(".timeBudget(").append(anno.timeBudget()).append("L)");
+		}
+		if (anno.ignoreCanceled()) {
+			out.append("\n").append(indent).append(TAB).append(".ignoreCanceled(true)");
+		}
+		List<TypeElement> filters = getFilters(method);
+		if (!filters.isEmpty()) {
+			out.append("\n").append(indent).append(TAB).append(".filters(");
+			for (int i = 0; i < filters.size(); i++) {
+				out.append(i == 0 ? "" : ", ").append(erasure(filters.get(i).asType())).append(".class");
+			}
+			out.append(")");
+		}
+		if (!anno.id().isEmpty()) {
+			out.append("\n").append(indent).append(TAB).append(".id(").append(literal(anno.id())).append(")");
+		}
+		if (anno.before().length > 0) {
+			out.append("\n").append(indent).append(TAB).append(".before(").append(literals(anno.before())).append(")");
+		}
+		if (anno.after().length > 0) {
+			out.append("\n").append(indent).append(TAB).append(".after(").append(literals(anno.after())).append(")");
+		}
+		if (anno.concurrent()) {
+			out.append("\n").append(indent).append(TAB).append(".concurrent(true)");
+		}
+		if (method.getAnnotation(ReadOnly.class) != null) {
+			out.append("\n").append(indent).append(TAB).append(".readOnly(true)");
+		}
+		if (batch) {
+			out.append("\n").append(indent).append(TAB).append(".batchInvoker(listener -> events -> ");
+		} else {
+			out.append("\n").append(indent).append(TAB).append(".invoker(listener -> event -> ");
+		}
+		out.append(receiver).append(".").append(name).append("(").append(argument).append("))");
+		return out.toString();
+	}
+
+	private String literal(String value) {
+		return processingEnv.getElementUtils().getConstantExpression(value);
+	}
+
+	private String literals(String[] values) {
+		StringBuilder out = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			out.append(i == 0 ? "" : ", ").append(literal(values[i]));
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Liest die Klassen aus {@link EventHandler#filter()}, ohne sie zu laden
+	 */
+	private List<TypeElement> getFilters(ExecutableElement method) {
+		List<TypeElement> filters = new ArrayList<>();
+		for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+			if (!mirror.getAnnotationType().toString().equals(EventHandler.class.getName())) {
+				continue;
+			}
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("filter")) {
+					for (Object value : (List<?>) entry.getValue().getValue()) {
+						TypeMirror type = (TypeMirror) ((AnnotationValue) value).getValue();
+						filters.add((TypeElement) processingEnv.getTypeUtils().asElement(type));
+					}
+				}
+			}
+		}
+		return filters;
+	}
+
+	/**
+	 * Filter Klassen werden im Index direkt referenziert und müssen deshalb auch erreichbar sein
+	 */
+	private boolean hasIndexableFilters(TypeElement listener) {
+		for (Element member : processingEnv.getElementUtils().getAllMembers(listener)) {
+			if (member.getKind() == ElementKind.METHOD && member.getAnnotation(EventHandler.class) != null) {
+				for (TypeElement filter : getFilters((ExecutableElement) member)) {
+					if (!isIndexable(filter)) {
+						return false;
+					}
+					if (!getPackage(filter).equals(getPackage(listener)) && !isPublic(filter)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isPublic(TypeElement type) {
+		Element element = type;
+		while (element instanceof TypeElement) {
+			if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+				return false;
+			}
+			element = element.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private TypeMirror getListElement(TypeMirror type) {
+		Types types = processingEnv.getTypeUtils();
+		if (type.getKind() != TypeKind.DECLARED || !erasure(type).equals("java.util.List")) {
+			return null;
+		}
+		List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+		if (arguments.size() != 1) {
+			return null;
+		}
+		TypeMirror element = arguments.get(0);
+		if (element.getKind() == TypeKind.WILDCARD) {
+			element = ((WildcardType) element).getExtendsBound();
+		}
+		return element != null && element.getKind() == TypeKind.DECLARED ? types.erasure(element) : null;
+	}
+
+	/**
+	 * Event, seine Unterklassen und Interfaces (z.B. Cancelable), außer denen des JDK
+	 */
+	private boolean isEventType(TypeMirror type) {
+		TypeElement event = processingEnv.getElementUtils().getTypeElement(EVENT_CLASS);
+		Types types = processingEnv.getTypeUtils();
+		Element element = types.asElement(type);
+		if (element != null && element.getKind() == ElementKind.INTERFACE) {
+			String name = ((TypeElement) element).getQualifiedName().toString();
+			for (String prefix : JDK_PACKAGES) {
+				if (name.startsWith(prefix)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return event != null && types.isAssignable(types.erasure(type), types.erasure(event.asType()));
+	}
+
+	/**
+	 * Nur Klassen die aus dem selben Package erreichbar sind können indexiert werden
+	 */
+	private boolean isIndexable(TypeElement type) {
+		Element element = type;
+		while (element instanceof TypeElement) {
+			TypeElement current = (TypeElement) element;
+			if (current.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (current.getNestingKind() == NestingKind.LOCAL || current.getNestingKind() == NestingKind.ANONYMOUS) {
+				return false;
+			}
+			element = current.getEnclosingElement();
+		}
+		return type.getKind() == ElementKind.CLASS;
+	}
+
+	private PackageElement getPackage(Element element) {
+		while (!(element instanceof PackageElement)) {
+			element = element.getEnclosingElement();
+		}
+		return (PackageElement) element;
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private void writeResource() {
+		if (indexedClasses.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ListenerIndexes.RESOURCE);
+			try (Writer writer = file.openWriter()) {
+				for (String name : indexedClasses) {
+					writer.write(name);
+					writer.write("\n");
+				}
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Listener Liste konnte nicht geschrieben werden: " + ex);
+		}
+	}
+}
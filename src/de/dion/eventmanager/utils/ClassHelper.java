@@ -1,74 +1,33 @@
 package de.dion.eventmanager.utils;
 
-import java.io.File;
 import java.io.IOException;
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
 
 /**
- * Code von Stackoverflow<br>
+ * Ursprünglich Code von Stackoverflow<br>
  * 
  * Quelle: <a href=
  * "https://stackoverflow.com/questions/520328/can-you-find-all-classes-in-a-package-using-reflection">
- * https://stackoverflow.com/questions/520328/can-you-find-all-classes-in-a-package-using-reflection</a>
+ * https://stackoverflow.com/questions/520328/can-you-find-all-classes-in-a-package-using-reflection</a><br>
+ * <br>
+ * Benutzt inzwischen den {@link ClassPathScanner}, der auch Jar Dateien durchsucht.
  */
 public class ClassHelper {
 
 	/**
 	 * Scans all classes accessible from the context class loader which belong
-	 * to the given package and subpackages.
+	 * to the given package and subpackages. Works for directories and jar files,
+	 * the classes are not initialized.
 	 *
 	 * @param packageName
 	 *            The base package
 	 * @return The classes
 	 * @throws ClassNotFoundException
 	 * @throws IOException
+	 * @see ClassPathScanner#getListenerClasses(String)
 	 */
 	public static Class[] getClasses(String packageName) throws ClassNotFoundException, IOException {
-		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-		assert classLoader != null;
-		String path = packageName.replace('.', '/');
-		Enumeration<URL> resources = classLoader.getResources(path);
-		List<File> dirs = new ArrayList<File>();
-		while (resources.hasMoreElements()) {
-			URL resource = resources.nextElement();
-			dirs.add(new File(resource.getFile()));
-		}
-		ArrayList<Class> classes = new ArrayList<Class>();
-		for (File directory : dirs) {
-			classes.addAll(findClasses(directory, packageName));
-		}
+		List<Class<?>> classes = ClassPathScanner.getClasses(packageName);
 		return classes.toArray(new Class[classes.size()]);
 	}
-
-	/**
-	 * Recursive method used to find all classes in a given directory and
-	 * subdirs.
-	 *
-	 * @param directory
-	 *            The base directory
-	 * @param packageName
-	 *            The package name for classes found inside the base directory
-	 * @return The classes
-	 * @throws ClassNotFoundException
-	 */
-	private static List<Class> findClasses(File directory, String packageName) throws ClassNotFoundException {
-		List<Class> classes = new ArrayList<Class>();
-		if (!directory.exists()) {
-			return classes;
-		}
-		File[] files = directory.listFiles();
-		for (File file : files) {
-			if (file.isDirectory()) {
-				assert !file.getName().contains(".");
-				classes.addAll(findClasses(file, packageName + "." + file.getName()));
-			} else if (file.getName().endsWith(".class")) {
-				classes.add(
-						Class.forName(packageName + '.' + file.getName().substring(0, file.getName().length() - 6)));
-			}
-		}
-		return classes;
-	}
 }
@@ -0,0 +1,345 @@
+package de.dion.eventmanager.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durchsucht Packages nach Klassen, in Ordnern und in Jar Dateien.<br>
+ * <br>
+ * Die Klassen werden mit <code>initialize=false</code> geladen, statische Initializer<br>
+ * laufen also erst wenn die Klasse wirklich benutzt wird. Die Klassendateien jedes Ordners<br>
+ * und Jars werden parallel gelesen und geprüft.<br>
+ * <br>
+ * Mit {@link #getListenerClasses(String)} werden nur Klassen geladen, deren Bytecode die<br>
+ * {@link de.dion.eventmanager.EventHandler} Annotation enthält, oder deren Superklasse bzw. Interface<br>
+ * sie enthält. Dafür wird die Hierarchie aus dem Bytecode gelesen, Supertypen außerhalb des Packages<br>
+ * werden über den ClassLoader nachgelesen, nur die Klassen des JDK werden übersprungen.<br>
+ * <br>
+ * Beispiel:<br>
+ * <code>eventManager.registerEvents(ClassPathScanner.getListenerClasses("de.dion.plugins"));</code>
+ */
+public class ClassPathScanner {
+
+	/**
+	 * So steht die Annotation im Constant Pool jeder Klasse die sie benutzt
+	 */
+	private static final byte[] EVENT_HANDLER_DESCRIPTOR = "Lde/dion/eventmanager/EventHandler;"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private final ClassLoader classLoader;
+	private final byte[] filter;
+
+	/**
+	 * Supertypen aus diesen Packages enthalten nie den Filter und werden nicht gelesen
+	 */
+	private static final String[] JDK_PACKAGES = { "java/", "javax/", "jdk/", "sun/" };
+
+	/**
+	 * @param filter Nur Klassen deren Bytecode (oder der eines Supertyps) diese Bytes enthält werden geladen,<br>
+	 *               <code>null</code> für alle
+	 */
+	public ClassPathScanner(ClassLoader classLoader, byte[] filter) {
+		this.classLoader = Objects.requireNonNull(classLoader);
+		this.filter = filter;
+	}
+
+	/**
+	 * Alle Klassen im Package (und Unterpackages) mit mindestens einer
+	 * {@link de.dion.eventmanager.EventHandler} Methode
+	 */
+	public static List<Class<?>> getListenerClasses(String packageName) throws IOException, ClassNotFoundException {
+		return new ClassPathScanner(Thread.currentThread().getContextClassLoader(), EVENT_HANDLER_DESCRIPTOR)
+				.scan(packageName);
+	}
+
+	/**
+	 * Alle Klassen im Package (und Unterpackages)
+	 */
+	public static List<Class<?>> getClasses(String packageName) throws IOException, ClassNotFoundException {
+		return new ClassPathScanner(Thread.currentThread().getContextClassLoader(), null).scan(packageName);
+	}
+
+	/**
+	 * Durchsucht das Package in allen Ordnern und Jars des ClassLoaders
+	 */
+	public List<Class<?>> scan(String packageName) throws IOException, ClassNotFoundException {
+		String path = packageName.replace('.', '/');
+		List<URL> roots = new ArrayList<>();
+		Enumeration<URL> resources = classLoader.getResources(path);
+		while (resources.hasMoreElements()) {
+			roots.add(resources.nextElement());
+		}
+
+		List<Candidate> found;
+		try {
+			found = roots.parallelStream()
+					.flatMap(root -> findCandidates(root, path))
+					.collect(Collectors.toList());
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+
+		Map<String, Candidate> scanned = new HashMap<>();
+		for (Candidate candidate : found) {
+			scanned.putIfAbsent(candidate.name, candidate);
+		}
+		Map<String, Boolean> resolved = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		for (String name : scanned.keySet()) {
+			if (isMatch(name, scanned, resolved)) {
+				names.add(name.replace('/', '.'));
+			}
+		}
+		names.sort(Comparator.naturalOrder());
+
+		List<Class<?>> classes = new ArrayList<>(names.size());
+		for (String name : names) {
+			classes.add(Class.forName(name, false, classLoader));
+		}
+		return classes;
+	}
+
+	/**
+	 * TRUE wenn die Klasse oder einer ihrer Supertypen den Filter enthält
+	 * 
+	 * @param name Interner Name, z.B. <code>de/dion/Listener</code>
+	 */
+	private boolean isMatch(String name, Map<String, Candidate> scanned, Map<String, Boolean> resolved) throws IOException {
+		Boolean known = resolved.get(name);
+		if (known != null) {
+			return known;
+		}
+		Candidate candidate = scanned.get(name);
+		if (candidate == null && !isJdkClass(name)) {
+			candidate = readResource(name);
+		}
+
+		boolean match = false;
+		if (candidate != null) {
+			match = candidate.matched;
+			for (int i = 0; !match && i < candidate.supertypes.size(); i++) {
+				match = isMatch(candidate.supertypes.get(i), scanned, resolved);
+			}
+		}
+		resolved.put(name, match);
+		return match;
+	}
+
+	private static boolean isJdkClass(String name) {
+		for (String prefix : JDK_PACKAGES) {
+			if (name.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Liest einen Supertyp außerhalb des Packages, <code>null</code> wenn der ClassLoader ihn nicht kennt
+	 */
+	private Candidate readResource(String name) throws IOException {
+		try (InputStream in = classLoader.getResourceAsStream(name + ".class")) {
+			return in != null ? read(name, in.readAllBytes()) : null;
+		}
+	}
+
+	private Stream<Candidate> findCandidates(URL root, String path) {
+		try {
+			if ("jar".equals(root.getProtocol())) {
+				return scanJar(root, path);
+			}
+			if ("file".equals(root.getProtocol())) {
+				return scanDirectory(Paths.get(root.toURI()), path);
+			}
+			return Stream.empty();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} catch (URISyntaxException ex) {
+			throw new UncheckedIOException(new IOException(ex));
+		}
+	}
+
+	private Stream<Candidate> scanDirectory(Path directory, String path) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(file -> file.toString().endsWith(".class")).collect(Collectors.toList());
+		}
+
+		return files.parallelStream().map(file -> {
+			String relative = directory.relativize(file).toString().replace(File.separatorChar, '/');
+			return read(toInternalName(path + "/" + relative), () -> Files.newInputStream(file));
+		});
+	}
+
+	private Stream<Candidate> scanJar(URL root, String path) throws IOException {
+		URLConnection connection = root.openConnection();
+		if (!(connection instanceof JarURLConnection)) {
+			return Stream.empty();
+		}
+		JarURLConnection jarConnection = (JarURLConnection) connection;
+		jarConnection.setUseCaches(false);
+
+		try (JarFile jar = jarConnection.getJarFile()) {
+			String prefix = path + "/";
+			List<JarEntry> classFiles = new ArrayList<>();
+			Enumeration<JarEntry> entries = jar.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				if (entry.getName().startsWith(prefix) && entry.getName().endsWith(".class")) {
+					classFiles.add(entry);
+				}
+			}
+			// Noch vor dem Schließen der Jar einsammeln, JarFile darf von mehreren Threads gelesen werden
+			List<Candidate> candidates = classFiles.parallelStream()
+					.map(entry -> read(toInternalName(entry.getName()), () -> jar.getInputStream(entry)))
+					.collect(Collectors.toList());
+			return candidates.stream();
+		}
+	}
+
+	private interface Source {
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * Prüft ob der Bytecode den Filter enthält und liest die Supertypen, ohne die Klasse zu laden
+	 */
+	private Candidate read(String name, Source source) {
+		if (filter == null) {
+			return new Candidate(name, true, Collections.emptyList());
+		}
+		try (InputStream in = source.open()) {
+			return read(name, in.readAllBytes());
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private Candidate read(String name, byte[] data) throws IOException {
+		return new Candidate(name, indexOf(data, filter) >= 0, readSupertypes(name, data));
+	}
+
+	/**
+	 * Liest Superklasse und Interfaces aus dem Constant Pool der Klassendatei
+	 * 
+	 * @return Die internen Namen, z.B. <code>java/lang/Object</code>
+	 */
+	private static List<String> readSupertypes(String name, byte[] data) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		if (in.readInt() != 0xCAFEBABE) {
+			throw new IOException(name + " ist keine Klassendatei");
+		}
+		in.skipBytes(4); // minor_version, major_version
+
+		int count = in.readUnsignedShort();
+		String[] utf8 = new String[count];
+		int[] classNames = new int[count];
+		for (int i = 1; i < count; i++) {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+			case 1: // Utf8
+				utf8[i] = in.readUTF();
+				break;
+			case 7: // Class
+				classNames[i] = in.readUnsignedShort();
+				break;
+			case 8: // String
+			case 16: // MethodType
+			case 19: // Module
+			case 20: // Package
+				in.skipBytes(2);
+				break;
+			case 15: // MethodHandle
+				in.skipBytes(3);
+				break;
+			case 3: // Integer
+			case 4: // Float
+			case 9: // Fieldref
+			case 10: // Methodref
+			case 11: // InterfaceMethodref
+			case 12: // NameAndType
+			case 17: // Dynamic
+			case 18: // InvokeDynamic
+				in.skipBytes(4);
+				break;
+			case 5: // Long
+			case 6: // Double, belegen zwei Plätze
+				in.skipBytes(8);
+				i++;
+				break;
+			default:
+				throw new IOException("Unbekannter Constant Pool Eintrag " + tag + " in " + name);
+			}
+		}
+		in.skipBytes(4); // access_flags, this_class
+
+		List<String> supertypes = new ArrayList<>();
+		int superClass = in.readUnsignedShort();
+		if (superClass != 0) {
+			supertypes.add(utf8[classNames[superClass]]);
+		}
+		int interfaces = in.readUnsignedShort();
+		for (int i = 0; i < interfaces; i++) {
+			supertypes.add(utf8[classNames[in.readUnsignedShort()]]);
+		}
+		return supertypes;
+	}
+
+	private static int indexOf(byte[] data, byte[] pattern) {
+		outer: for (int i = 0; i <= data.length - pattern.length; i++) {
+			for (int j = 0; j < pattern.length; j++) {
+				if (data[i + j] != pattern[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	private static String toInternalName(String resourceName) {
+		return resourceName.substring(0, resourceName.length() - ".class".length());
+	}
+
+	/**
+	 * Eine gefundene Klassendatei
+	 */
+	private static final class Candidate {
+
+		/** Interner Name, z.B. <code>de/dion/Listener</code> */
+		final String name;
+		/** TRUE wenn der Bytecode selbst den Filter enthält */
+		final boolean matched;
+		final List<String> supertypes;
+
+		Candidate(String name, boolean matched, List<String> supertypes) {
+			this.name = name;
+			this.matched = matched;
+			this.supertypes = supertypes;
+		}
+	}
+}